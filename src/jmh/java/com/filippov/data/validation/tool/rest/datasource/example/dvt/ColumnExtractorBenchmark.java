@@ -0,0 +1,108 @@
+/*
+ *   Copyright 2018-2020 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.filippov.data.validation.tool.rest.datasource.example.dvt;
+
+import com.filippov.data.validation.tool.model.DatasourceColumn;
+import com.filippov.data.validation.tool.model.DatasourceTable;
+import com.filippov.data.validation.tool.rest.datasource.example.config.ApplicationProperties;
+import com.filippov.data.validation.tool.rest.datasource.example.generator.CompaniesGenerator;
+import com.filippov.data.validation.tool.rest.datasource.example.model.Company;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static java.util.Map.entry;
+
+/**
+ * Resolving a column and reading its values from rows, as every data request does: the metadata maps keyed by
+ * {@link DatasourceTable} and {@link DatasourceColumn} with hand-written extractors against the generated
+ * extractors of {@link TableColumns} found by index.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ColumnExtractorBenchmark {
+    private static final DatasourceTable TABLE = StaticDataValidationToolMetadataProvider.COMPANIES_TABLE;
+
+    @Param({"intId", "companyName", "dateOfCreation", "competitors"})
+    private String column;
+
+    @Param({"1", "1000"})
+    private int rows;
+
+    private StaticDataValidationToolMetadataProvider metadataProvider;
+    private Map<DatasourceTable, Map<String, DatasourceColumn>> columnsMap;
+    private Map<DatasourceColumn, Function<?, Object>> extractorsMap;
+    private List<Company> companies;
+
+    @Setup
+    public void setup() {
+        final ApplicationProperties properties = new ApplicationProperties();
+        properties.setNumberOfCompanies(rows);
+        properties.setPercentOfDiscrepancies(0);
+        companies = new CompaniesGenerator(properties).generate();
+
+        metadataProvider = new StaticDataValidationToolMetadataProvider();
+        columnsMap = Map.of(TABLE, StaticDataValidationToolMetadataProvider.METADATA.getColumns().stream()
+                .filter(c -> c.getTableName().equals(TABLE.getName()))
+                .collect(Collectors.toMap(DatasourceColumn::getName, Function.identity())));
+        extractorsMap = Map.ofEntries(
+                entry(columnsMap.get(TABLE).get("intId"), (Function<Company, Object>) Company::getIntId),
+                entry(columnsMap.get(TABLE).get("longId"), (Function<Company, Object>) Company::getLongId),
+                entry(columnsMap.get(TABLE).get("active"), (Function<Company, Object>) Company::getActive),
+                entry(columnsMap.get(TABLE).get("companyName"), (Function<Company, Object>) Company::getCompanyName),
+                entry(columnsMap.get(TABLE).get("lastRevenue"), (Function<Company, Object>) Company::getLastRevenue),
+                entry(columnsMap.get(TABLE).get("country"), (Function<Company, Object>) Company::getCountry),
+                entry(columnsMap.get(TABLE).get("dateOfCreation"), (Function<Company, Object>) Company::getDateOfCreation),
+                entry(columnsMap.get(TABLE).get("foundersFirstNames"), (Function<Company, Object>) Company::getFoundersFirstNames),
+                entry(columnsMap.get(TABLE).get("foundersLastNames"), (Function<Company, Object>) Company::getFoundersLastNames),
+                entry(columnsMap.get(TABLE).get("categories"), (Function<Company, Object>) Company::getCategories),
+                entry(columnsMap.get(TABLE).get("competitors"), (Function<Company, Object>) Company::getCompetitors));
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public Object[] extractorsMap() {
+        final DatasourceColumn datasourceColumn = columnsMap.get(TABLE).get(column);
+        return read((Function<Object, Object>) extractorsMap.get(datasourceColumn));
+    }
+
+    @Benchmark
+    public Object[] generatedExtractors() {
+        final TableColumns tableColumns = metadataProvider.getTableColumns(TABLE.getName());
+        return read(tableColumns.getExtractor(tableColumns.indexOf(column)));
+    }
+
+    private Object[] read(Function<Object, Object> extractor) {
+        final Object[] result = new Object[companies.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = extractor.apply(companies.get(i));
+        }
+        return result;
+    }
+}
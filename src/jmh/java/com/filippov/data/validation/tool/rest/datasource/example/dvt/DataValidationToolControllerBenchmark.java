@@ -0,0 +1,121 @@
+/*
+ *   Copyright 2018-2020 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.filippov.data.validation.tool.rest.datasource.example.dvt;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.filippov.data.validation.tool.model.ColumnData;
+import com.filippov.data.validation.tool.model.DatasourceColumn;
+import com.filippov.data.validation.tool.rest.datasource.example.cache.ColumnDataCache;
+import com.filippov.data.validation.tool.rest.datasource.example.config.ApplicationProperties;
+import com.filippov.data.validation.tool.rest.datasource.example.digest.DigestService;
+import com.filippov.data.validation.tool.rest.datasource.example.generator.CompaniesGenerator;
+import com.filippov.data.validation.tool.rest.datasource.example.generator.DepartmentsGenerator;
+import com.filippov.data.validation.tool.rest.datasource.example.generator.GenerationEngine;
+import com.filippov.data.validation.tool.rest.datasource.example.generator.UsersGenerator;
+import com.filippov.data.validation.tool.rest.datasource.example.metrics.DataValidationToolMetrics;
+import com.filippov.data.validation.tool.rest.datasource.example.service.CompaniesService;
+import com.filippov.data.validation.tool.rest.datasource.example.service.DepartmentsService;
+import com.filippov.data.validation.tool.rest.datasource.example.service.UsersService;
+import com.filippov.data.validation.tool.rest.datasource.example.storage.StorageMode;
+import com.filippov.data.validation.tool.rest.datasource.example.storage.TableStoreFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.unit.DataSize;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building a page of the data validation tool endpoint from the stores and serializing it to JSON,
+ * the two parts of the response time which depend on the data.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DataValidationToolControllerBenchmark {
+    private static final int NUMBER_OF_ROWS = 100_000;
+
+    @Param({"users.username", "users.longId", "departments.employees", "companies.categories"})
+    private String column;
+
+    @Param({"1000"})
+    private int limit;
+
+    @Param({"OBJECTS", "COLUMNAR"})
+    private StorageMode storageMode;
+
+    @Param({"true", "false"})
+    private boolean primitiveColumns;
+
+    private DataValidationToolController controller;
+    private ObjectMapper objectMapper;
+    private DatasourceColumn datasourceColumn;
+    private ColumnData columnData;
+    private int offset;
+
+    @Setup
+    public void setup() {
+        final ApplicationProperties properties = new ApplicationProperties();
+        properties.setNumberOfUsers(NUMBER_OF_ROWS);
+        properties.setNumberOfDepartments(NUMBER_OF_ROWS);
+        properties.setNumberOfCompanies(NUMBER_OF_ROWS);
+        properties.setSizeOfNestedLists(10);
+        properties.setPercentOfDiscrepancies(0);
+        properties.setStorageMode(storageMode);
+        properties.setGenerationParallelism(0);
+        properties.setGenerationChunkSize(10_000);
+        properties.setPrimitiveColumns(primitiveColumns);
+        properties.setColumnDataCacheSize(DataSize.ofBytes(0));
+
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        final StaticDataValidationToolMetadataProvider metadataProvider = new StaticDataValidationToolMetadataProvider();
+        final TableStoreFactory tableStoreFactory = new TableStoreFactory(metadataProvider, new GenerationEngine(properties, new SimpleMeterRegistry()), properties, objectMapper);
+        final DatasourceRegistry datasourceRegistry = new DatasourceRegistry(metadataProvider, properties, tableStoreFactory,
+                new UsersService(new UsersGenerator(properties), tableStoreFactory),
+                new DepartmentsService(new DepartmentsGenerator(properties), tableStoreFactory),
+                new CompaniesService(new CompaniesGenerator(properties), tableStoreFactory));
+        controller = new DataValidationToolController(datasourceRegistry, properties,
+                new ColumnDataCache(properties),
+                new DigestService(objectMapper),
+                new DataValidationToolMetrics(new SimpleMeterRegistry()));
+
+        final String[] tableAndColumn = column.split("\\.");
+        datasourceColumn = DatasourceColumn.builder()
+                .tableName(tableAndColumn[0])
+                .name(tableAndColumn[1])
+                .build();
+        columnData = controller.getData(datasourceColumn, 0, limit);
+    }
+
+    @Benchmark
+    public ColumnData getData() {
+        offset = (offset + limit) % NUMBER_OF_ROWS;
+        return controller.getData(datasourceColumn, offset, limit);
+    }
+
+    @Benchmark
+    public byte[] serializeColumnData() throws Exception {
+        return objectMapper.writeValueAsBytes(columnData);
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ *   Copyright 2018-2020 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.filippov.data.validation.tool.rest.datasource.example.generator;
+
+import com.filippov.data.validation.tool.rest.datasource.example.config.ApplicationProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of generating a single row, the startup generation time is roughly this multiplied by the table size.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class GeneratorBenchmark {
+    private static final int NUMBER_OF_ROWS = 1_000_000;
+
+    @Param({"users", "departments", "companies"})
+    private String table;
+
+    @Param({"0", "10"})
+    private int percentOfDiscrepancies;
+
+    @Param({"default", "skewed"})
+    private String profile;
+
+    private DataGenerator<?> generator;
+    private int index;
+
+    @Setup
+    public void setup() {
+        final ApplicationProperties properties = new ApplicationProperties();
+        properties.setNumberOfUsers(NUMBER_OF_ROWS);
+        properties.setNumberOfDepartments(NUMBER_OF_ROWS);
+        properties.setNumberOfCompanies(NUMBER_OF_ROWS);
+        properties.setSizeOfNestedLists(100);
+        properties.setPercentOfDiscrepancies(percentOfDiscrepancies);
+        if (profile.equals("skewed")) {
+            properties.setValueCardinality(100_000);
+            properties.setValueSkew(1.1);
+            properties.setStringLength(64);
+            properties.setPercentOfNulls(5);
+            properties.setNestedListSkew(1.0);
+        }
+        switch (table) {
+            case "users":
+                generator = new UsersGenerator(properties);
+                break;
+            case "departments":
+                generator = new DepartmentsGenerator(properties);
+                break;
+            default:
+                generator = new CompaniesGenerator(properties);
+                break;
+        }
+    }
+
+    @Benchmark
+    public Object generateRow() {
+        index = (index + 1) % generator.getSize();
+        return generator.generate(index);
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ *   Copyright 2018-2020 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.filippov.data.validation.tool.rest.datasource.example.service;
+
+import com.filippov.data.validation.tool.rest.datasource.example.config.ApplicationProperties;
+import com.filippov.data.validation.tool.rest.datasource.example.dvt.StaticDataValidationToolMetadataProvider;
+import com.filippov.data.validation.tool.rest.datasource.example.generator.GenerationEngine;
+import com.filippov.data.validation.tool.rest.datasource.example.generator.UsersGenerator;
+import com.filippov.data.validation.tool.rest.datasource.example.model.User;
+import com.filippov.data.validation.tool.rest.datasource.example.storage.StorageMode;
+import com.filippov.data.validation.tool.rest.datasource.example.storage.TableStoreFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.stream.Collectors.toList;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DataServicePagingBenchmark {
+
+    @Param({"0", "100000", "500000", "990000"})
+    private int offset;
+
+    @Param({"100", "1000", "10000"})
+    private int limit;
+
+    @Param({"OBJECTS", "COLUMNAR"})
+    private StorageMode storageMode;
+
+    private List<User> users;
+    private UsersService usersService;
+
+    @Setup
+    public void setup() {
+        final ApplicationProperties properties = new ApplicationProperties();
+        properties.setNumberOfUsers(1_000_000);
+        properties.setPercentOfDiscrepancies(0);
+        properties.setStorageMode(storageMode);
+        properties.setGenerationParallelism(0);
+        properties.setGenerationChunkSize(10_000);
+        final UsersGenerator generator = new UsersGenerator(properties);
+
+        users = generator.generate();
+        usersService = new UsersService(generator,
+                new TableStoreFactory(new StaticDataValidationToolMetadataProvider(), new GenerationEngine(properties, new SimpleMeterRegistry()), properties,
+                        Jackson2ObjectMapperBuilder.json().build()));
+    }
+
+    @Benchmark
+    public void indexWindow(Blackhole blackhole) {
+        usersService.getData(offset, limit).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void streamSkipLimit(Blackhole blackhole) {
+        users.stream()
+                .skip(offset)
+                .limit(limit)
+                .collect(toList())
+                .forEach(blackhole::consume);
+    }
+}
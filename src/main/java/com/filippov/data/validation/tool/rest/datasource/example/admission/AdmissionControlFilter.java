@@ -0,0 +1,332 @@
+/*
+ *   Copyright 2018-2020 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.filippov.data.validation.tool.rest.datasource.example.admission;
+
+import com.filippov.data.validation.tool.rest.datasource.example.config.ApplicationProperties;
+import com.filippov.data.validation.tool.rest.datasource.example.digest.DigestTree;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Admission control of the endpoints which return windows of rows. The response size is estimated before the request
+ * is handled. A window bigger than {@code max-response-size} is truncated to the rows which fit and the offset of the
+ * next window is returned in {@code X-Next-Offset}, pages of {@code /data/stream} are made smaller. The data validation
+ * tool doesn't read {@code X-Next-Offset}, so a truncated page would silently skip rows: its column data windows are
+ * rejected with 413 instead, and the message tells how many rows fit. A request is rejected with 429 and
+ * {@code Retry-After} when the responses in flight would exceed {@code max-in-flight-response-size}, so a burst of big
+ * pages slows clients down instead of exhausting the heap. Bytes are released when the response is written,
+ * for streamed responses when the asynchronous request completes.
+ */
+@Slf4j
+@Component
+// before the compressed page cache, so truncated pages are cached under the truncated limit
+@Order(0)
+public class AdmissionControlFilter extends OncePerRequestFilter {
+    public static final String NEXT_OFFSET_HEADER = "X-Next-Offset";
+    private static final String RETRY_AFTER_SECONDS = "1";
+    private static final int PERMIT_SIZE = 1024;
+    private static final int HEAP_PARTS = 4;
+    // column metadata of the data validation tool responses, brackets of the pages
+    private static final int RESPONSE_OVERHEAD = 512;
+    private static final int DEFAULT_STREAM_PAGE_SIZE = 1000;
+    private static final int DEFAULT_DIGEST_BUCKET_SIZE = 1000;
+    private static final Set<String> ROW_PATHS = Set.of("/users", "/departments", "/companies",
+            "/reactive/users", "/reactive/departments", "/reactive/companies");
+    private static final String TABLES_PATH = "/tables/";
+
+    private final ResponseSizeEstimator estimator;
+    private final long maxResponseSize;
+    private final int maxPermits;
+    private final Semaphore inFlightPermits;
+    private final Counter truncated;
+    private final Counter rejected;
+    private final Counter oversized;
+
+    public AdmissionControlFilter(ResponseSizeEstimator estimator, ApplicationProperties applicationProperties,
+                                  MeterRegistry meterRegistry) {
+        this.estimator = estimator;
+        this.maxResponseSize = applicationProperties.getMaxResponseSize().toBytes();
+        // a buffered response takes a few times its size while it's built, so the budget never exceeds a part of the heap
+        final long maxInFlightResponseSize = Math.min(applicationProperties.getMaxInFlightResponseSize().toBytes(),
+                Runtime.getRuntime().maxMemory() / HEAP_PARTS);
+        this.maxPermits = (int) Math.min(Integer.MAX_VALUE, maxInFlightResponseSize / PERMIT_SIZE);
+        this.inFlightPermits = (maxPermits > 0) ? new Semaphore(maxPermits) : null;
+        this.truncated = admissionCounter(meterRegistry, "truncated");
+        this.rejected = admissionCounter(meterRegistry, "rejected");
+        this.oversized = admissionCounter(meterRegistry, "oversized");
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return (maxResponseSize <= 0 && inFlightPermits == null) || !HttpMethod.GET.matches(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        final Window window;
+        try {
+            window = window(request);
+        } catch (RuntimeException e) {
+            // unknown tables, columns and malformed parameters are reported by the endpoint itself
+            log.debug("Response size of request: {} can't be estimated: {}", request.getRequestURI(), e.getMessage());
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (window == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        HttpServletRequest admittedRequest = request;
+        long responseSize = window.getResponseSize();
+        if (maxResponseSize > 0 && responseSize > maxResponseSize) {
+            final int limit = (int) Math.max(1, (maxResponseSize - RESPONSE_OVERHEAD) / window.rowSize);
+            if (!window.truncatable) {
+                oversized.increment();
+                response.sendError(HttpStatus.PAYLOAD_TOO_LARGE.value(), "Estimated response size: " + responseSize
+                        + " bytes exceeds max response size: " + maxResponseSize + " bytes, request at most " + limit + " rows");
+                return;
+            }
+            admittedRequest = new LimitedRequest(request, window.limitParameter, limit);
+            if (window.offset >= 0) {
+                response.setHeader(NEXT_OFFSET_HEADER, String.valueOf(window.offset + limit));
+            }
+            responseSize = RESPONSE_OVERHEAD + limit * window.rowSize;
+            truncated.increment();
+            log.debug("Request: {} has been truncated to {} rows. Estimated response size: {} bytes",
+                    request.getRequestURI(), limit, window.getResponseSize());
+        }
+
+        if (inFlightPermits == null) {
+            filterChain.doFilter(admittedRequest, response);
+            return;
+        }
+        final int permits = (int) Math.min(maxPermits, (responseSize + PERMIT_SIZE - 1) / PERMIT_SIZE);
+        if (!inFlightPermits.tryAcquire(permits)) {
+            rejected.increment();
+            response.setHeader(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+            response.sendError(HttpStatus.TOO_MANY_REQUESTS.value(), "Too many bytes in flight, estimated response size: "
+                    + responseSize + " bytes, retry later");
+            return;
+        }
+
+        final AtomicBoolean released = new AtomicBoolean();
+        final Runnable release = () -> {
+            if (released.compareAndSet(false, true)) {
+                inFlightPermits.release(permits);
+            }
+        };
+        try {
+            filterChain.doFilter(admittedRequest, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        release.run();
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                        release.run();
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent event) {
+                        release.run();
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                    }
+                });
+            } else {
+                release.run();
+            }
+        }
+    }
+
+    public long getAvailableBytes() {
+        return (inFlightPermits != null) ? (long) inFlightPermits.availablePermits() * PERMIT_SIZE : Long.MAX_VALUE;
+    }
+
+    /**
+     * Returns the window requested from an endpoint which returns rows, or null for other endpoints.
+     */
+    private Window window(HttpServletRequest request) {
+        final String path = request.getServletPath();
+        switch (path) {
+            case "/data":
+                return columnDataWindow(request, List.of(request.getParameter("columnName")), "offset", "limit");
+            case "/data/after":
+                return columnDataWindow(request, List.of(request.getParameter("columnName")), null, "limit");
+            case "/data/batch":
+                final String[] columnNames = request.getParameterValues("columnNames");
+                return columnDataWindow(request, (columnNames != null) ? splitColumnNames(columnNames) : Collections.emptyList(),
+                        "offset", "limit");
+            case "/digest":
+                return digestWindow(request);
+            case "/data/stream":
+                // pages of a stream are built one by one, so only one page is counted
+                final String tableName = request.getParameter("tableName");
+                final long rowSize = estimator.getColumnDataRowSize(tableName, List.of(request.getParameter("columnName")));
+                final String pageSize = request.getParameter("pageSize");
+                final int rows = Math.min(estimator.getSize(tableName),
+                        (pageSize != null) ? Integer.parseInt(pageSize) : DEFAULT_STREAM_PAGE_SIZE);
+                return new Window("pageSize", -1, rows, rowSize, true);
+            default:
+                break;
+        }
+        if (ROW_PATHS.contains(path)) {
+            return rowWindow(request, path.substring(path.lastIndexOf('/') + 1));
+        }
+        if (path.startsWith(TABLES_PATH) && path.indexOf('/', TABLES_PATH.length()) < 0) {
+            return rowWindow(request, path.substring(TABLES_PATH.length()));
+        }
+        return null;
+    }
+
+    private Window columnDataWindow(HttpServletRequest request, List<String> columnNames, String offsetParameter,
+                                    String limitParameter) {
+        final String tableName = request.getParameter("tableName");
+        final int offset = (offsetParameter != null) ? Integer.parseInt(request.getParameter(offsetParameter)) : 0;
+        final int limit = Integer.parseInt(request.getParameter(limitParameter));
+        final int rows = Math.min(limit, Math.max(0, estimator.getSize(tableName) - offset));
+        return new Window(limitParameter, (offsetParameter != null) ? offset : -1, rows,
+                estimator.getColumnDataRowSize(tableName, columnNames), false);
+    }
+
+    /**
+     * Nodes of the requested level of the digest tree, the root without a level.
+     */
+    private Window digestWindow(HttpServletRequest request) {
+        final String bucketSize = request.getParameter("bucketSize");
+        final int buckets = DigestTree.getBucketCount(estimator.getSize(request.getParameter("tableName")),
+                (bucketSize != null) ? Integer.parseInt(bucketSize) : DEFAULT_DIGEST_BUCKET_SIZE);
+        final String level = request.getParameter("level");
+        final int nodes = (level != null) ? DigestTree.getNodeCount(buckets, Integer.parseInt(level)) : 1;
+        final String from = request.getParameter("from");
+        final String count = request.getParameter("count");
+        final int remaining = Math.max(0, nodes - ((from != null) ? Integer.parseInt(from) : 0));
+        final int rows = (count != null) ? Math.min(Integer.parseInt(count), remaining) : remaining;
+        return new Window("count", -1, rows, estimator.getDigestSize(), false);
+    }
+
+    private Window rowWindow(HttpServletRequest request, String tableName) {
+        final int offset = Integer.parseInt(request.getParameter("page"));
+        final int limit = Integer.parseInt(request.getParameter("pageSize"));
+        final int rows = Math.min(limit, Math.max(0, estimator.getSize(tableName) - offset));
+        return new Window("pageSize", offset, rows, estimator.getRowSize(tableName), true);
+    }
+
+    private static List<String> splitColumnNames(String[] values) {
+        return Arrays.stream(values)
+                .flatMap(value -> Arrays.stream(value.split(",")))
+                .filter(name -> !name.isEmpty())
+                .collect(toList());
+    }
+
+    private static Counter admissionCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("http.server.admission")
+                .description("Requests truncated or rejected by admission control")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static class Window {
+        private final String limitParameter;
+        // -1 when the endpoint has no offset
+        private final int offset;
+        private final int rows;
+        private final long rowSize;
+        // false when the clients of the endpoint can't request the rest of a truncated window
+        private final boolean truncatable;
+
+        private Window(String limitParameter, int offset, int rows, long rowSize, boolean truncatable) {
+            if (offset < -1 || rows < 0) {
+                throw new IllegalArgumentException("Offset and limit must not be negative");
+            }
+            this.limitParameter = limitParameter;
+            this.offset = offset;
+            this.rows = rows;
+            this.rowSize = Math.max(1, rowSize);
+            this.truncatable = truncatable;
+        }
+
+        private long getResponseSize() {
+            return RESPONSE_OVERHEAD + rows * rowSize;
+        }
+    }
+
+    /**
+     * Request with a smaller limit parameter, the endpoint reads it like the original one.
+     */
+    private static class LimitedRequest extends HttpServletRequestWrapper {
+        private final String limitParameter;
+        private final String limit;
+
+        private LimitedRequest(HttpServletRequest request, String limitParameter, int limit) {
+            super(request);
+            this.limitParameter = limitParameter;
+            this.limit = String.valueOf(limit);
+        }
+
+        @Override
+        public String getParameter(String name) {
+            return limitParameter.equals(name) ? limit : super.getParameter(name);
+        }
+
+        @Override
+        public String[] getParameterValues(String name) {
+            return limitParameter.equals(name) ? new String[]{limit} : super.getParameterValues(name);
+        }
+
+        @Override
+        public Map<String, String[]> getParameterMap() {
+            final Map<String, String[]> parameters = new HashMap<>(super.getParameterMap());
+            parameters.put(limitParameter, new String[]{limit});
+            return Collections.unmodifiableMap(parameters);
+        }
+    }
+}
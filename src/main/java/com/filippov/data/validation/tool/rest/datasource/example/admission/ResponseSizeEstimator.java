@@ -0,0 +1,137 @@
+/*
+ *   Copyright 2018-2020 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.filippov.data.validation.tool.rest.datasource.example.admission;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.filippov.data.validation.tool.model.ColumnDigest;
+import com.filippov.data.validation.tool.model.DatasourceTable;
+import com.filippov.data.validation.tool.rest.datasource.example.dvt.DatasourceRegistry;
+import com.filippov.data.validation.tool.rest.datasource.example.service.DataService;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Estimates JSON bytes of responses before they're built. Values of a column are similar, so a value of every column
+ * is measured once on a sample of rows spread over the table and the average is kept.
+ */
+@Component
+public class ResponseSizeEstimator {
+    private static final int SAMPLE_SIZE = 64;
+    // quotes, colon and comma around a field name of a row
+    private static final int FIELD_OVERHEAD = 4;
+    private static final int ROW_OVERHEAD = 2;
+
+    private final DatasourceRegistry datasourceRegistry;
+    private final ObjectWriter jsonWriter;
+    private final Map<String, Integer> valueSizes = new ConcurrentHashMap<>();
+    private final int digestSize;
+
+    public ResponseSizeEstimator(DatasourceRegistry datasourceRegistry, ObjectMapper objectMapper) {
+        this.datasourceRegistry = datasourceRegistry;
+        this.jsonWriter = objectMapper.writer();
+        this.digestSize = measureDigest();
+    }
+
+    public int getSize(String tableName) {
+        return datasourceRegistry.getDataService(tableName).getSize();
+    }
+
+    /**
+     * Bytes of a row of the table written as a JSON object.
+     */
+    public long getRowSize(String tableName) {
+        final DatasourceTable table = datasourceRegistry.getDatasourceTable(tableName);
+        long size = ROW_OVERHEAD;
+        for (String columnName : table.getColumns()) {
+            size += columnName.length() + FIELD_OVERHEAD + getValueSize(table, columnName);
+        }
+        return size;
+    }
+
+    /**
+     * Bytes of a row of the data validation tool endpoints: the key and a value of every column.
+     * All columns of the table are counted when no column names are given.
+     */
+    public long getColumnDataRowSize(String tableName, List<String> columnNames) {
+        final DatasourceTable table = datasourceRegistry.getDatasourceTable(tableName);
+        long size = getValueSize(table, table.getPrimaryKey());
+        for (String columnName : columnNames.isEmpty() ? table.getColumns() : columnNames) {
+            size += getValueSize(table, columnName);
+        }
+        return size;
+    }
+
+    /**
+     * Bytes of a node digest of the {@code /digest} endpoint, measured with the longest numbers.
+     */
+    public int getDigestSize() {
+        return digestSize;
+    }
+
+    private int getValueSize(DatasourceTable table, String columnName) {
+        final String key = table.getName() + '.' + columnName;
+        final Integer size = valueSizes.get(key);
+        if (size != null) {
+            return size;
+        }
+        // fails for unknown columns, so they're never cached
+        datasourceRegistry.getDatasourceColumn(table, columnName);
+        return valueSizes.computeIfAbsent(key, k -> measure(datasourceRegistry.getDataService(table.getName()), columnName));
+    }
+
+    private int measure(DataService<?> dataService, String columnName) {
+        final int samples = Math.min(SAMPLE_SIZE, dataService.getSize());
+        if (samples == 0) {
+            return 1;
+        }
+        final int step = dataService.getSize() / samples;
+        final int[] rows = new int[samples];
+        for (int i = 0; i < samples; i++) {
+            rows[i] = i * step;
+        }
+
+        long bytes = 0;
+        try {
+            for (Object value : dataService.readRows(columnName, rows)) {
+                bytes += jsonWriter.writeValueAsBytes(value).length;
+            }
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        // plus a separator
+        return (int) (bytes / samples) + 1;
+    }
+
+    private int measureDigest() {
+        try {
+            return jsonWriter.writeValueAsBytes(ColumnDigest.RangeDigest.builder()
+                    .index(Integer.MAX_VALUE)
+                    .offset(Integer.MAX_VALUE)
+                    .limit(Integer.MAX_VALUE)
+                    .digest(String.format("%016x", Long.MIN_VALUE))
+                    .build()).length + 1;
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ *   Copyright 2018-2020 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.filippov.data.validation.tool.rest.datasource.example.cache;
+
+import com.filippov.data.validation.tool.model.ColumnData;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.filippov.data.validation.tool.rest.datasource.example.config.ApplicationProperties;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * Size bounded cache of built column data pages. Caffeine evicts entries with W-TinyLFU policy once the
+ * estimated size of the cached pages exceeds the budget. The data never changes after generation,
+ * so there's nothing to invalidate.
+ */
+@Component
+public class ColumnDataCache {
+    private final Cache<PageKey, ColumnData> cache;
+
+    public ColumnDataCache(ApplicationProperties applicationProperties) {
+        final long maxSize = applicationProperties.getColumnDataCacheSize().toBytes();
+        this.cache = (maxSize > 0)
+                ? Caffeine.newBuilder()
+                .maximumWeight(maxSize)
+                .weigher((PageKey key, ColumnData columnData) -> ColumnDataWeigher.weigh(columnData))
+                .recordStats()
+                .build()
+                : null;
+    }
+
+    public Cache<PageKey, ColumnData> getCache() {
+        return cache;
+    }
+
+    public ColumnData get(String tableName, String columnName, int offset, int limit, Supplier<ColumnData> loader) {
+        if (cache == null) {
+            return loader.get();
+        }
+        return cache.get(new PageKey(tableName, columnName, offset, limit), key -> loader.get());
+    }
+
+    @ToString
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    public static final class PageKey {
+        private final String tableName;
+        private final String columnName;
+        private final int offset;
+        private final int limit;
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ *   Copyright 2018-2020 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.filippov.data.validation.tool.rest.datasource.example.cache;
+
+import com.filippov.data.validation.tool.model.ColumnData;
+import com.filippov.data.validation.tool.rest.datasource.example.storage.DoubleValues;
+import com.filippov.data.validation.tool.rest.datasource.example.storage.IntValues;
+import com.filippov.data.validation.tool.rest.datasource.example.storage.LongValues;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Estimates the heap retained by column data. Values of a column are similar, so only a sample of them is measured.
+ */
+public final class ColumnDataWeigher {
+    private static final int SAMPLE_SIZE = 16;
+    private static final int OBJECT_SIZE = 16;
+    private static final int REFERENCE_SIZE = 8;
+    private static final int BASE_SIZE = 256;
+
+    private ColumnDataWeigher() {
+    }
+
+    public static int weigh(ColumnData columnData) {
+        final long size = BASE_SIZE + estimate(columnData.getKeys()) + estimate(columnData.getValues());
+        return (int) Math.min(size, Integer.MAX_VALUE);
+    }
+
+    public static long estimate(List<Object> values) {
+        if (values == null || values.isEmpty()) {
+            return 0;
+        }
+        if (values instanceof IntValues) {
+            return OBJECT_SIZE + 4L * values.size();
+        }
+        if (values instanceof LongValues || values instanceof DoubleValues) {
+            return OBJECT_SIZE + 8L * values.size();
+        }
+
+        final int step = Math.max(1, values.size() / SAMPLE_SIZE);
+        long sampleSize = 0;
+        int samples = 0;
+        for (int i = 0; i < values.size(); i += step) {
+            sampleSize += estimateValue(values.get(i));
+            samples++;
+        }
+        return OBJECT_SIZE + (long) values.size() * (REFERENCE_SIZE + sampleSize / samples);
+    }
+
+    private static long estimateValue(Object value) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof CharSequence) {
+            return 2L * OBJECT_SIZE + ((CharSequence) value).length();
+        }
+        if (value instanceof Collection) {
+            final Collection<?> collection = (Collection<?>) value;
+            final Object first = collection.isEmpty() ? null : collection.iterator().next();
+            return OBJECT_SIZE + collection.size() * (REFERENCE_SIZE + estimateValue(first));
+        }
+        // boxed primitives, dates and flat model objects
+        return 2L * OBJECT_SIZE;
+    }
+}
@@ -0,0 +1,226 @@
+/*
+ *   Copyright 2018-2020 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.filippov.data.validation.tool.rest.datasource.example.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.filippov.data.validation.tool.rest.datasource.example.config.ApplicationProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps gzip or deflate compressed responses of the data validation tool data endpoint, so the same page requested
+ * by several validators is generated and compressed only once per encoding. Concurrent requests of a page which isn't
+ * cached yet wait for the first one to build it. The data never changes after generation, so entries are evicted
+ * only to stay within the configured size.
+ */
+@Slf4j
+@Component
+// after the admission control, before the response bytes metrics
+@Order(1)
+public class CompressedPageCacheFilter extends OncePerRequestFilter {
+    private static final String GZIP = "gzip";
+    private static final String DEFLATE = "deflate";
+
+    private final String path;
+    private final int minResponseSize;
+    private final Cache<String, CompressedPage> cache;
+    private final Map<String, CompletableFuture<CompressedPage>> inFlight = new ConcurrentHashMap<>();
+
+    public CompressedPageCacheFilter(ApplicationProperties applicationProperties) {
+        this.path = applicationProperties.getCompressedPageCachePath();
+        this.minResponseSize = (int) applicationProperties.getCompressedPageCacheMinResponseSize().toBytes();
+        final long maxSize = applicationProperties.getCompressedPageCacheSize().toBytes();
+        this.cache = (maxSize > 0)
+                ? Caffeine.newBuilder()
+                .maximumWeight(maxSize)
+                .weigher((String key, CompressedPage page) -> key.length() + page.body.length)
+                .recordStats()
+                .build()
+                : null;
+    }
+
+    public Cache<String, CompressedPage> getCache() {
+        return cache;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return cache == null
+                || !HttpMethod.GET.matches(request.getMethod())
+                || !path.equals(request.getServletPath())
+                || negotiateEncoding(request.getHeader(HttpHeaders.ACCEPT_ENCODING)) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        final String encoding = negotiateEncoding(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        final String key = cacheKey(request, encoding);
+        final CompressedPage cachedPage = cache.getIfPresent(key);
+        if (cachedPage != null) {
+            write(response, cachedPage);
+            return;
+        }
+
+        final CompletableFuture<CompressedPage> building = new CompletableFuture<>();
+        final CompletableFuture<CompressedPage> builtByOther = inFlight.putIfAbsent(key, building);
+        if (builtByOther != null) {
+            // null when the page of the other request can't be cached, so it's built as usual
+            final CompressedPage page = builtByOther.join();
+            if (page != null) {
+                write(response, page);
+            } else {
+                filterChain.doFilter(request, response);
+            }
+            return;
+        }
+        try {
+            // the page may have been cached since the first lookup
+            CompressedPage page = cache.getIfPresent(key);
+            if (page == null) {
+                page = build(request, response, filterChain, encoding);
+                if (page != null) {
+                    cache.put(key, page);
+                }
+            }
+            if (page != null) {
+                write(response, page);
+            }
+            building.complete(page);
+        } finally {
+            inFlight.remove(key, building);
+            building.complete(null);
+        }
+    }
+
+    /**
+     * Handles the request and returns its compressed page, or writes the response as it is and returns null
+     * if it can't be cached.
+     */
+    private CompressedPage build(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain,
+                                 String encoding) throws ServletException, IOException {
+        final ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
+        filterChain.doFilter(request, responseWrapper);
+        if (responseWrapper.getStatus() != HttpServletResponse.SC_OK
+                || responseWrapper.getContentSize() < minResponseSize
+                || responseWrapper.getHeader(HttpHeaders.CONTENT_ENCODING) != null) {
+            responseWrapper.copyBodyToResponse();
+            return null;
+        }
+        return new CompressedPage(responseWrapper.getContentType(), encoding,
+                compress(responseWrapper.getContentAsByteArray(), encoding));
+    }
+
+    /**
+     * Returns gzip or deflate, whichever is accepted with the higher quality (gzip on a tie), or null if neither is accepted.
+     */
+    static String negotiateEncoding(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return null;
+        }
+        double gzipQuality = 0;
+        double deflateQuality = 0;
+        for (String coding : acceptEncoding.split(",")) {
+            final String[] parts = coding.split(";");
+            final String name = parts[0].trim();
+            final double quality = quality(parts);
+            if (GZIP.equalsIgnoreCase(name)) {
+                gzipQuality = quality;
+            } else if (DEFLATE.equalsIgnoreCase(name)) {
+                deflateQuality = quality;
+            }
+        }
+        if (gzipQuality > 0 && gzipQuality >= deflateQuality) {
+            return GZIP;
+        }
+        return (deflateQuality > 0) ? DEFLATE : null;
+    }
+
+    private static double quality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            final String parameter = parts[i].trim();
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2));
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    private static String cacheKey(HttpServletRequest request, String encoding) {
+        final StringBuilder key = new StringBuilder(encoding).append(':').append(request.getServletPath()).append('?');
+        new TreeMap<>(request.getParameterMap()).forEach((name, values) -> {
+            for (String value : values) {
+                key.append(name).append('=').append(value).append('&');
+            }
+        });
+        return key.append(request.getHeader(HttpHeaders.ACCEPT)).toString();
+    }
+
+    private static byte[] compress(byte[] body, String encoding) throws IOException {
+        final ByteArrayOutputStream result = new ByteArrayOutputStream(body.length / 4);
+        // deflate is the zlib format, which is what DeflaterOutputStream writes by default
+        try (OutputStream compressed = GZIP.equals(encoding) ? new GZIPOutputStream(result) : new DeflaterOutputStream(result)) {
+            compressed.write(body);
+        }
+        return result.toByteArray();
+    }
+
+    private static void write(HttpServletResponse response, CompressedPage page) throws IOException {
+        response.setContentType(page.contentType);
+        response.setHeader(HttpHeaders.CONTENT_ENCODING, page.encoding);
+        // JSON and columnar pages of the same window are cached separately
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT + ", " + HttpHeaders.ACCEPT_ENCODING);
+        response.setContentLength(page.body.length);
+        response.getOutputStream().write(page.body);
+    }
+
+    public static class CompressedPage {
+        private final String contentType;
+        private final String encoding;
+        private final byte[] body;
+
+        private CompressedPage(String contentType, String encoding, byte[] body) {
+            this.contentType = contentType;
+            this.encoding = encoding;
+            this.body = body;
+        }
+    }
+}
@@ -16,14 +16,19 @@
 
 package com.filippov.data.validation.tool.rest.datasource.example.config;
 
+import com.filippov.data.validation.tool.rest.datasource.example.storage.StorageMode;
+import com.filippov.data.validation.tool.rest.datasource.example.table.TableDefinition;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
 
 import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.List;
 
 @Slf4j
 @Getter
@@ -37,6 +42,26 @@ public class ApplicationProperties {
     private Integer numberOfCompanies;
     private Integer percentOfDiscrepancies;
     private Integer sizeOfNestedLists;
+    private StorageMode storageMode;
+    private Integer generationParallelism;
+    private Integer generationChunkSize;
+    private Boolean primitiveColumns;
+    private DataSize compressedPageCacheSize;
+    private DataSize compressedPageCacheMinResponseSize;
+    private String compressedPageCachePath;
+    private DataSize columnDataCacheSize;
+    private Boolean virtualThreads;
+    private String snapshotPath;
+    private Integer preSerializedJsonBlockSize;
+    private DataSize preSerializedJsonCacheSize;
+    private Integer valueCardinality;
+    private Double valueSkew;
+    private Integer stringLength;
+    private Integer percentOfNulls;
+    private Double nestedListSkew;
+    private DataSize maxResponseSize;
+    private DataSize maxInFlightResponseSize;
+    private List<TableDefinition> tables = new ArrayList<>();
 
     @PostConstruct
     public void post() {
@@ -0,0 +1,44 @@
+/*
+ *   Copyright 2018-2020 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.filippov.data.validation.tool.rest.datasource.example.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.web.embedded.jetty.JettyServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Slf4j
+@Configuration
+public class JettyConfig {
+
+    @Bean
+    public WebServerFactoryCustomizer<JettyServletWebServerFactory> virtualThreadsCustomizer(ApplicationProperties applicationProperties) {
+        return factory -> {
+            if (!Boolean.TRUE.equals(applicationProperties.getVirtualThreads())) {
+                return;
+            }
+            if (!VirtualThreadPool.isSupported()) {
+                log.warn("Virtual threads require Java 21 or newer, running on Java {}. Requests are served by the platform thread pool",
+                        Runtime.version());
+                return;
+            }
+            log.info("Requests are served by virtual threads");
+            factory.setThreadPool(new VirtualThreadPool());
+        };
+    }
+}
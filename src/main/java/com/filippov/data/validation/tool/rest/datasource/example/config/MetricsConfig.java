@@ -0,0 +1,40 @@
+/*
+ *   Copyright 2018-2020 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.filippov.data.validation.tool.rest.datasource.example.config;
+
+import com.filippov.data.validation.tool.rest.datasource.example.cache.ColumnDataCache;
+import com.filippov.data.validation.tool.rest.datasource.example.cache.CompressedPageCacheFilter;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder cacheMetrics(ColumnDataCache columnDataCache, CompressedPageCacheFilter compressedPageCacheFilter) {
+        return meterRegistry -> {
+            if (columnDataCache.getCache() != null) {
+                CaffeineCacheMetrics.monitor(meterRegistry, columnDataCache.getCache(), "column-data");
+            }
+            if (compressedPageCacheFilter.getCache() != null) {
+                CaffeineCacheMetrics.monitor(meterRegistry, compressedPageCacheFilter.getCache(), "compressed-pages");
+            }
+        };
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ *   Copyright 2018-2020 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.filippov.data.validation.tool.rest.datasource.example.config;
+
+import org.eclipse.jetty.util.component.AbstractLifeCycle;
+import org.eclipse.jetty.util.thread.ThreadPool;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Jetty thread pool which runs every task on a new virtual thread, so requests never wait for a free thread.
+ * Virtual threads are available since Java 21 while the application is built for Java 11, so they are created
+ * through reflection, {@link #isSupported()} tells whether the running JVM can create them.
+ */
+public class VirtualThreadPool extends AbstractLifeCycle implements ThreadPool {
+    private static final String THREAD_NAME_PREFIX = "jetty-virtual-";
+    private static final long STOP_TIMEOUT_MILLIS = 30_000;
+
+    private final ExecutorService executor;
+    private final AtomicInteger threads = new AtomicInteger();
+
+    public VirtualThreadPool() {
+        this.executor = newVirtualThreadPerTaskExecutor();
+    }
+
+    /**
+     * Creates an executor to find out, because on Java 19 and 20 virtual threads exist,
+     * but can't be created without {@code --enable-preview}.
+     */
+    public static boolean isSupported() {
+        try {
+            newVirtualThreadPerTaskExecutor().shutdown();
+            return true;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        executor.execute(() -> {
+            threads.incrementAndGet();
+            try {
+                task.run();
+            } finally {
+                threads.decrementAndGet();
+            }
+        });
+    }
+
+    @Override
+    public void join() throws InterruptedException {
+        while (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+            // wait until the pool is stopped
+        }
+    }
+
+    @Override
+    public int getThreads() {
+        return threads.get();
+    }
+
+    @Override
+    public int getIdleThreads() {
+        return 0;
+    }
+
+    @Override
+    public boolean isLowOnThreads() {
+        return false;
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        executor.shutdown();
+        if (!executor.awaitTermination(STOP_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+            executor.shutdownNow();
+        }
+    }
+
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            // Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(THREAD_NAME_PREFIX, 0).factory())
+            final Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            final Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            builderClass.getMethod("name", String.class, long.class).invoke(builder, THREAD_NAME_PREFIX, 0L);
+            final ThreadFactory threadFactory = (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+            return (ExecutorService) Executors.class
+                    .getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                    .invoke(null, threadFactory);
+        } catch (NoSuchMethodException | ClassNotFoundException | IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Virtual threads aren't supported by Java " + Runtime.version(), e);
+        }
+    }
+}
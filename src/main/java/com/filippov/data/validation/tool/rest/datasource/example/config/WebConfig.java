@@ -0,0 +1,42 @@
+/*
+ *   Copyright 2018-2020 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.filippov.data.validation.tool.rest.datasource.example.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.filippov.data.validation.tool.rest.datasource.example.controller.JsonRowWindowHttpMessageConverter;
+import com.filippov.data.validation.tool.rest.datasource.example.dvt.ColumnDataBinaryHttpMessageConverter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+@RequiredArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        // added first, so pre-serialized rows are written before Jackson gets a chance to serialize them again
+        converters.add(0, new JsonRowWindowHttpMessageConverter());
+        // added last, so JSON stays the default for clients which accept any media type
+        converters.add(new ColumnDataBinaryHttpMessageConverter(objectMapper));
+    }
+}
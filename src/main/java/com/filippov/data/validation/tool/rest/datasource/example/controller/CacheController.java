@@ -0,0 +1,63 @@
+/*
+ *   Copyright 2018-2020 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.filippov.data.validation.tool.rest.datasource.example.controller;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.filippov.data.validation.tool.rest.datasource.example.cache.ColumnDataCache;
+import com.filippov.data.validation.tool.rest.datasource.example.cache.CompressedPageCacheFilter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("cache")
+@RequiredArgsConstructor
+public class CacheController {
+
+    private final ColumnDataCache columnDataCache;
+    private final CompressedPageCacheFilter compressedPageCacheFilter;
+
+    @GetMapping(value = "/stats", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Map<String, Map<String, Long>> getStats() {
+        final Map<String, Map<String, Long>> result = new LinkedHashMap<>();
+        result.put("column-data", getStats(columnDataCache.getCache()));
+        result.put("compressed-pages", getStats(compressedPageCacheFilter.getCache()));
+        return result;
+    }
+
+    private static Map<String, Long> getStats(Cache<?, ?> cache) {
+        final Map<String, Long> result = new LinkedHashMap<>();
+        if (cache == null) {
+            return result;
+        }
+        final CacheStats stats = cache.stats();
+        result.put("hits", stats.hitCount());
+        result.put("misses", stats.missCount());
+        result.put("evictions", stats.evictionCount());
+        result.put("entries", cache.estimatedSize());
+        result.put("weight", cache.policy().eviction()
+                .map(eviction -> eviction.weightedSize().orElse(0L))
+                .orElse(0L));
+        return result;
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ *   Copyright 2018-2020 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.filippov.data.validation.tool.rest.datasource.example.controller;
+
+import com.filippov.data.validation.tool.rest.datasource.example.storage.JsonRowWindow;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+
+/**
+ * Writes pages of pre-serialized rows as they are, without passing the rows through Jackson again.
+ */
+public class JsonRowWindowHttpMessageConverter extends AbstractHttpMessageConverter<JsonRowWindow<?>> {
+
+    public JsonRowWindowHttpMessageConverter() {
+        super(MediaType.APPLICATION_JSON);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return JsonRowWindow.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected JsonRowWindow<?> readInternal(Class<? extends JsonRowWindow<?>> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Pre-serialized rows can't be read", inputMessage);
+    }
+
+    @Override
+    protected Long getContentLength(JsonRowWindow<?> rows, MediaType contentType) {
+        return rows.getJsonArrayLength();
+    }
+
+    @Override
+    protected void writeInternal(JsonRowWindow<?> rows, HttpOutputMessage outputMessage) throws IOException {
+        rows.writeJsonArray(outputMessage.getBody());
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ *   Copyright 2018-2020 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.filippov.data.validation.tool.rest.datasource.example.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.filippov.data.validation.tool.rest.datasource.example.storage.JsonRowWindow;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
+
+/**
+ * Writes rows as newline delimited JSON one by one, so a response never has to be held in memory as a whole.
+ */
+@Component
+@RequiredArgsConstructor
+public class NdjsonStreamer {
+    private static final char NEW_LINE = '\n';
+
+    private final ObjectMapper objectMapper;
+
+    public StreamingResponseBody stream(List<?> rows) {
+        if (rows instanceof JsonRowWindow) {
+            return ((JsonRowWindow<?>) rows)::writeNdjson;
+        }
+        return outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.setRootValueSeparator(null);
+                for (Object row : rows) {
+                    generator.writeObject(row);
+                    generator.writeRaw(NEW_LINE);
+                }
+            }
+        };
+    }
+}
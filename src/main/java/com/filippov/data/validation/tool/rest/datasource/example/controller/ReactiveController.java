@@ -0,0 +1,79 @@
+/*
+ *   Copyright 2018-2020 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.filippov.data.validation.tool.rest.datasource.example.controller;
+
+import com.filippov.data.validation.tool.rest.datasource.example.model.Company;
+import com.filippov.data.validation.tool.rest.datasource.example.model.Department;
+import com.filippov.data.validation.tool.rest.datasource.example.model.User;
+import com.filippov.data.validation.tool.rest.datasource.example.service.CompaniesService;
+import com.filippov.data.validation.tool.rest.datasource.example.service.DepartmentsService;
+import com.filippov.data.validation.tool.rest.datasource.example.service.UsersService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Streams rows as newline delimited JSON. The window is resolved on subscription and a row is assembled
+ * from the store only when it's requested, so the page is never built as a whole. Spring MVC writes the rows
+ * with blocking servlet writes on its async executor, so a slow client holds an executor thread, not a request thread.
+ */
+@Slf4j
+@RestController
+@RequestMapping("reactive")
+@RequiredArgsConstructor
+public class ReactiveController {
+
+    private final UsersService usersService;
+    private final DepartmentsService departmentsService;
+    private final CompaniesService companiesService;
+
+    @GetMapping(value = "/users", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<User> streamUsers(@RequestParam("page") Integer page,
+                                  @RequestParam("pageSize") Integer pageSize) {
+        log.debug("Users data reactive stream has been requested. Page: {}, pageSize: {}", page, pageSize);
+        return stream(() -> usersService.getData(page, pageSize));
+    }
+
+    @GetMapping(value = "/departments", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Department> streamDepartments(@RequestParam("page") Integer page,
+                                              @RequestParam("pageSize") Integer pageSize) {
+        log.debug("Departments data reactive stream has been requested. Page: {}, pageSize: {}", page, pageSize);
+        return stream(() -> departmentsService.getData(page, pageSize));
+    }
+
+    @GetMapping(value = "/companies", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Company> streamCompanies(@RequestParam("page") Integer page,
+                                         @RequestParam("pageSize") Integer pageSize) {
+        log.debug("Companies data reactive stream has been requested. Page: {}, pageSize: {}", page, pageSize);
+        return stream(() -> companiesService.getData(page, pageSize));
+    }
+
+    private static <T> Flux<T> stream(Supplier<List<T>> window) {
+        return Flux.defer(() -> {
+            final List<T> rows = window.get();
+            return Flux.range(0, rows.size()).map(rows::get);
+        });
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ *   Copyright 2018-2020 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.filippov.data.validation.tool.rest.datasource.example.controller;
+
+import com.filippov.data.validation.tool.rest.datasource.example.dvt.DatasourceRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
+
+/**
+ * Rows of any table by its name, including the tables declared in the application properties.
+ */
+@Slf4j
+@RestController
+@RequestMapping("tables")
+@RequiredArgsConstructor
+public class TablesController {
+
+    private final DatasourceRegistry datasourceRegistry;
+    private final NdjsonStreamer ndjsonStreamer;
+
+    @GetMapping(value = "/{tableName}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public List<?> getRows(@PathVariable String tableName,
+                           @RequestParam("page") Integer page,
+                           @RequestParam("pageSize") Integer pageSize) {
+        log.debug("Table: {} data has been requested. Page: {}, pageSize: {}", tableName, page, pageSize);
+        return datasourceRegistry.getDataService(tableName).getData(page, pageSize);
+    }
+
+    @GetMapping(value = "/{tableName}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public StreamingResponseBody streamRows(@PathVariable String tableName,
+                                            @RequestParam("page") Integer page,
+                                            @RequestParam("pageSize") Integer pageSize) {
+        log.debug("Table: {} data stream has been requested. Page: {}, pageSize: {}", tableName, page, pageSize);
+        return ndjsonStreamer.stream(datasourceRegistry.getDataService(tableName).getData(page, pageSize));
+    }
+
+    @GetMapping("/{tableName}/size")
+    public Integer getSize(@PathVariable String tableName) {
+        return datasourceRegistry.getDataService(tableName).getSize();
+    }
+}
@@ -25,6 +25,7 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -35,6 +36,7 @@ import java.util.List;
 public class UsersController {
 
     private final UsersService usersService;
+    private final NdjsonStreamer ndjsonStreamer;
 
     @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
     public List<User> getUsers(@RequestParam("page") Integer page,
@@ -43,6 +45,13 @@ public class UsersController {
         return usersService.getData(page, pageSize);
     }
 
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public StreamingResponseBody streamUsers(@RequestParam("page") Integer page,
+                                             @RequestParam("pageSize") Integer pageSize) {
+        log.debug("Users data stream has been requested. Page: {}, pageSize: {}", page, pageSize);
+        return ndjsonStreamer.stream(usersService.getData(page, pageSize));
+    }
+
     @GetMapping("/size")
     public Integer getSize() {
         return usersService.getSize();
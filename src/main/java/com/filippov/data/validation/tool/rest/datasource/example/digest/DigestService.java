@@ -0,0 +1,62 @@
+/*
+ *   Copyright 2018-2020 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.filippov.data.validation.tool.rest.datasource.example.digest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.filippov.data.validation.tool.rest.datasource.example.service.DataService;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps digest trees of the columns, so buckets hashed once are reused by all later requests.
+ * Trees are weighed by their number of nodes, so trees with small buckets can't exhaust the heap.
+ */
+@Component
+public class DigestService {
+    public static final int MAX_DIGESTS_PER_RESPONSE = 10_000;
+    // 8 bytes per node, 64MB of digests
+    private static final long MAX_NODES = 1 << 23;
+
+    private final ObjectMapper objectMapper;
+    private final Cache<TreeKey, DigestTree> trees = Caffeine.newBuilder()
+            .maximumWeight(MAX_NODES)
+            .weigher((TreeKey key, DigestTree tree) -> tree.getTotalNodeCount())
+            .build();
+
+    public DigestService(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public DigestTree getDigestTree(String tableName, DataService<?> dataService, String keyColumnName,
+                                    String valueColumnName, int bucketSize) {
+        return trees.get(new TreeKey(tableName, valueColumnName, bucketSize),
+                key -> new DigestTree(dataService, keyColumnName, valueColumnName, objectMapper, bucketSize));
+    }
+
+    @ToString
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static final class TreeKey {
+        private final String tableName;
+        private final String columnName;
+        private final int bucketSize;
+    }
+}
@@ -0,0 +1,219 @@
+/*
+ *   Copyright 2018-2020 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.filippov.data.validation.tool.rest.datasource.example.digest;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.filippov.data.validation.tool.rest.datasource.example.service.DataService;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+
+/**
+ * Merkle tree of digests of a column. Level 0 has a digest of every bucket of {@code bucketSize} rows:
+ * XXH64 of the (key, value) pairs of the bucket serialized as JSON. Every upper level node combines two nodes
+ * of the level below, the top level has a single root. Buckets are hashed on demand in chunks of {@code CHUNK_SIZE},
+ * an upper level is computed as a whole on the first request for any of its nodes. Everything computed is kept,
+ * so comparing two datasources costs one pass over the data and drilling down is free. Only requests for a chunk
+ * or a level which is being computed wait for it, computed nodes are read without locking.
+ */
+public class DigestTree {
+    /**
+     * Max number of buckets of a tree, so a tree never takes more than a few dozen megabytes.
+     */
+    public static final int MAX_BUCKETS = 1 << 20;
+    private static final int CHUNK_SIZE = 64;
+    private static final long SEED = 0;
+    private static final char NEW_LINE = '\n';
+
+    private final DataService<?> dataService;
+    private final String keyColumnName;
+    private final String valueColumnName;
+    private final ObjectMapper objectMapper;
+    private final int size;
+    private final int bucketSize;
+    private final int[] nodeCounts;
+    private final AtomicReferenceArray<CompletableFuture<long[]>> chunks;
+    // level 0 is kept in chunks
+    private final AtomicReferenceArray<CompletableFuture<long[]>> digests;
+
+    public DigestTree(DataService<?> dataService, String keyColumnName, String valueColumnName,
+                      ObjectMapper objectMapper, int bucketSize) {
+        if (bucketSize <= 0) {
+            throw new IllegalArgumentException("Bucket size must be positive. Bucket size: " + bucketSize);
+        }
+        this.dataService = dataService;
+        this.keyColumnName = keyColumnName;
+        this.valueColumnName = valueColumnName;
+        this.objectMapper = objectMapper;
+        this.size = dataService.getSize();
+        this.bucketSize = bucketSize;
+
+        final int buckets = getBucketCount(size, bucketSize);
+        if (buckets > MAX_BUCKETS) {
+            throw new IllegalArgumentException("Bucket size: " + bucketSize + " gives more than " + MAX_BUCKETS
+                    + " buckets for " + size + " rows, bucket size must be at least " + ((size - 1) / MAX_BUCKETS + 1));
+        }
+        this.nodeCounts = new int[getLevelCount(buckets)];
+        for (int level = 0; level < nodeCounts.length; level++) {
+            nodeCounts[level] = getNodeCount(buckets, level);
+        }
+        this.chunks = new AtomicReferenceArray<>((buckets - 1) / CHUNK_SIZE + 1);
+        this.digests = new AtomicReferenceArray<>(nodeCounts.length);
+    }
+
+    public static int getBucketCount(int size, int bucketSize) {
+        return Math.max(1, (int) ((size + (long) bucketSize - 1) / bucketSize));
+    }
+
+    public static int getLevelCount(int buckets) {
+        return 33 - Integer.numberOfLeadingZeros(buckets - 1);
+    }
+
+    public static int getNodeCount(int buckets, int level) {
+        return ((buckets - 1) >> level) + 1;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getBucketSize() {
+        return bucketSize;
+    }
+
+    public int getLevels() {
+        return nodeCounts.length;
+    }
+
+    public int getNodeCount(int level) {
+        checkLevel(level);
+        return nodeCounts[level];
+    }
+
+    /**
+     * Returns the number of nodes of all levels, which is the most the tree keeps.
+     */
+    public int getTotalNodeCount() {
+        int count = 0;
+        for (int nodeCount : nodeCounts) {
+            count += nodeCount;
+        }
+        return count;
+    }
+
+    /**
+     * Returns the first row covered by the node.
+     */
+    public int getOffset(int level, int index) {
+        return (int) Math.min(size, ((long) index << level) * bucketSize);
+    }
+
+    /**
+     * Returns the number of rows covered by the node.
+     */
+    public int getLimit(int level, int index) {
+        return getOffset(level, index + 1) - getOffset(level, index);
+    }
+
+    public long getDigest(int level, int index) {
+        checkLevel(level);
+        if (index < 0 || index >= nodeCounts[level]) {
+            throw new IllegalArgumentException("Node index is out of range. Level: " + level + ", index: " + index);
+        }
+        return (level == 0)
+                ? get(chunks, index / CHUNK_SIZE, () -> hashChunk(index / CHUNK_SIZE))[index % CHUNK_SIZE]
+                : get(digests, level, () -> computeLevel(level))[index];
+    }
+
+    /**
+     * The first caller computes the slot and publishes it through a completed future, concurrent callers wait for it.
+     * A slot which failed is removed, so the next request computes it again.
+     */
+    private static long[] get(AtomicReferenceArray<CompletableFuture<long[]>> slots, int slot, Supplier<long[]> computation) {
+        while (true) {
+            final CompletableFuture<long[]> result = slots.get(slot);
+            if (result != null) {
+                return result.join();
+            }
+            final CompletableFuture<long[]> future = new CompletableFuture<>();
+            if (slots.compareAndSet(slot, null, future)) {
+                try {
+                    future.complete(computation.get());
+                } catch (RuntimeException e) {
+                    slots.set(slot, null);
+                    future.completeExceptionally(e);
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private long[] hashChunk(int chunk) {
+        final int from = chunk * CHUNK_SIZE;
+        final long[] result = new long[Math.min(CHUNK_SIZE, nodeCounts[0] - from)];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = hashBucket(from + i);
+        }
+        return result;
+    }
+
+    private long[] computeLevel(int level) {
+        final long[] result = new long[nodeCounts[level]];
+        final int children = nodeCounts[level - 1];
+        for (int index = 0; index < result.length; index++) {
+            result[index] = (2 * index + 1 < children)
+                    ? XxHash64.combine(getDigest(level - 1, 2 * index), getDigest(level - 1, 2 * index + 1))
+                    : getDigest(level - 1, 2 * index);
+        }
+        return result;
+    }
+
+    private long hashBucket(int index) {
+        final int offset = getOffset(0, index);
+        final int limit = getLimit(0, index);
+        final Object[][] columns = dataService.readColumns(List.of(keyColumnName, valueColumnName), offset, limit);
+        final Object[] keys = columns[0];
+        final Object[] values = columns[1];
+
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream(limit * 32);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.setRootValueSeparator(null);
+            for (int i = 0; i < limit; i++) {
+                generator.writeStartArray();
+                generator.writeObject(keys[i]);
+                generator.writeObject(values[i]);
+                generator.writeEndArray();
+                generator.writeRaw(NEW_LINE);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return XxHash64.hash(outputStream.toByteArray(), SEED);
+    }
+
+    private void checkLevel(int level) {
+        if (level < 0 || level >= nodeCounts.length) {
+            throw new IllegalArgumentException("Level is out of range. Level: " + level + ", levels: " + nodeCounts.length);
+        }
+    }
+}
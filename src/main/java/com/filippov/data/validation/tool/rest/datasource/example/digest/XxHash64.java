@@ -0,0 +1,114 @@
+/*
+ *   Copyright 2018-2020 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.filippov.data.validation.tool.rest.datasource.example.digest;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
+/**
+ * XXH64 hash function, see https://github.com/Cyan4973/xxHash/blob/dev/doc/xxhash_spec.md
+ */
+public final class XxHash64 {
+    private static final long PRIME_1 = 0x9E3779B185EBCA87L;
+    private static final long PRIME_2 = 0xC2B2AE3D27D4EB4FL;
+    private static final long PRIME_3 = 0x165667B19E3779F9L;
+    private static final long PRIME_4 = 0x85EBCA77C2B2AE63L;
+    private static final long PRIME_5 = 0x27D4EB2F165667C5L;
+
+    private static final VarHandle LONGS = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle INTS = MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private XxHash64() {
+    }
+
+    public static long hash(byte[] data, long seed) {
+        return hash(data, 0, data.length, seed);
+    }
+
+    public static long hash(byte[] data, int offset, int length, long seed) {
+        final int end = offset + length;
+        int position = offset;
+        long hash;
+
+        if (length >= 32) {
+            long v1 = seed + PRIME_1 + PRIME_2;
+            long v2 = seed + PRIME_2;
+            long v3 = seed;
+            long v4 = seed - PRIME_1;
+            final int limit = end - 32;
+            do {
+                v1 = round(v1, (long) LONGS.get(data, position));
+                v2 = round(v2, (long) LONGS.get(data, position + 8));
+                v3 = round(v3, (long) LONGS.get(data, position + 16));
+                v4 = round(v4, (long) LONGS.get(data, position + 24));
+                position += 32;
+            } while (position <= limit);
+
+            hash = Long.rotateLeft(v1, 1) + Long.rotateLeft(v2, 7) + Long.rotateLeft(v3, 12) + Long.rotateLeft(v4, 18);
+            hash = merge(hash, v1);
+            hash = merge(hash, v2);
+            hash = merge(hash, v3);
+            hash = merge(hash, v4);
+        } else {
+            hash = seed + PRIME_5;
+        }
+
+        hash += length;
+        for (; position + 8 <= end; position += 8) {
+            hash ^= round(0, (long) LONGS.get(data, position));
+            hash = Long.rotateLeft(hash, 27) * PRIME_1 + PRIME_4;
+        }
+        if (position + 4 <= end) {
+            hash ^= (Integer.toUnsignedLong((int) INTS.get(data, position))) * PRIME_1;
+            hash = Long.rotateLeft(hash, 23) * PRIME_2 + PRIME_3;
+            position += 4;
+        }
+        for (; position < end; position++) {
+            hash ^= (data[position] & 0xFF) * PRIME_5;
+            hash = Long.rotateLeft(hash, 11) * PRIME_1;
+        }
+
+        hash ^= hash >>> 33;
+        hash *= PRIME_2;
+        hash ^= hash >>> 29;
+        hash *= PRIME_3;
+        hash ^= hash >>> 32;
+        return hash;
+    }
+
+    /**
+     * Hashes two digests into one, used to build upper levels of a digest tree.
+     */
+    public static long combine(long left, long right) {
+        final byte[] data = new byte[16];
+        LONGS.set(data, 0, left);
+        LONGS.set(data, 8, right);
+        return hash(data, 0);
+    }
+
+    private static long round(long accumulator, long input) {
+        accumulator += input * PRIME_2;
+        accumulator = Long.rotateLeft(accumulator, 31);
+        return accumulator * PRIME_1;
+    }
+
+    private static long merge(long accumulator, long value) {
+        accumulator ^= round(0, value);
+        return accumulator * PRIME_1 + PRIME_4;
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ *   Copyright 2018-2020 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.filippov.data.validation.tool.rest.datasource.example.dvt;
+
+import com.filippov.data.validation.tool.model.DatasourceColumn;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.List;
+
+/**
+ * Several columns of the same table for the same window: one key list shared by all columns
+ * and a list of values per data column, in the order of {@link #dataColumns}.
+ */
+@Getter
+@Builder
+@ToString
+public class ColumnDataBatch {
+    private final DatasourceColumn keyColumn;
+    private final List<DatasourceColumn> dataColumns;
+    private final List<Object> keys;
+    private final List<List<Object>> values;
+}
@@ -0,0 +1,418 @@
+/*
+ *   Copyright 2018-2020 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.filippov.data.validation.tool.rest.datasource.example.dvt;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.filippov.data.validation.tool.model.ColumnData;
+import com.filippov.data.validation.tool.model.DataType;
+import com.filippov.data.validation.tool.model.DatasourceColumn;
+import com.filippov.data.validation.tool.rest.datasource.example.storage.DoubleValues;
+import com.filippov.data.validation.tool.rest.datasource.example.storage.IntValues;
+import com.filippov.data.validation.tool.rest.datasource.example.storage.LongValues;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact columnar encoding of {@link ColumnData}.
+ * <p>
+ * Layout: magic "DVTC", version byte, key column and data column descriptors, then the keys block and the values block.
+ * A descriptor is a presence byte followed by the table name, the column name and the data type name.
+ * A block starts with the number of values and a null flag byte, followed by a null bitmap if the flag is set.
+ * Non-null values are encoded by the data type of the column:
+ * <ul>
+ *     <li>INTEGER, LONG: zigzag varint of the delta from the previous value;</li>
+ *     <li>DOUBLE: 8 bytes;</li>
+ *     <li>BOOLEAN: bitmap;</li>
+ *     <li>DATE: zigzag varint of the epoch day;</li>
+ *     <li>DATE_TIME: zigzag varint of the epoch second and varint of the nanos;</li>
+ *     <li>STRING: dictionary of distinct values followed by a varint code per value;</li>
+ *     <li>LIST_OF_INTEGERS: varint size and zigzag varints per value;</li>
+ *     <li>LIST_OF_STRINGS: dictionary of distinct elements followed by the varint size and codes per value;</li>
+ *     <li>any other type: dictionary of distinct JSON documents followed by a varint code per value.</li>
+ * </ul>
+ * Strings are written as a varint length followed by UTF-8 bytes.
+ */
+public class ColumnDataBinaryCodec {
+    public static final String MEDIA_TYPE = "application/x-dvt-columnar";
+
+    private static final byte[] MAGIC = {'D', 'V', 'T', 'C'};
+    private static final int VERSION = 1;
+
+    private final ObjectMapper objectMapper;
+
+    public ColumnDataBinaryCodec(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public void write(ColumnData columnData, OutputStream outputStream) throws IOException {
+        final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(outputStream));
+        out.write(MAGIC);
+        out.writeByte(VERSION);
+        writeColumn(out, columnData.getKeyColumn());
+        writeColumn(out, columnData.getDataColumn());
+        writeValues(out, dataType(columnData.getKeyColumn()), columnData.getKeys());
+        writeValues(out, dataType(columnData.getDataColumn()), columnData.getValues());
+        out.flush();
+    }
+
+    public ColumnData read(InputStream inputStream) throws IOException {
+        final DataInputStream in = new DataInputStream(new BufferedInputStream(inputStream));
+        final byte[] magic = new byte[MAGIC.length];
+        in.readFully(magic);
+        final int version = in.readUnsignedByte();
+        if (!Arrays.equals(magic, MAGIC) || version != VERSION) {
+            throw new IOException("Unsupported column data format. Version: " + version);
+        }
+        final DatasourceColumn keyColumn = readColumn(in);
+        final DatasourceColumn dataColumn = readColumn(in);
+        return ColumnData.builder()
+                .keyColumn(keyColumn)
+                .dataColumn(dataColumn)
+                .keys(readValues(in, dataType(keyColumn)))
+                .values(readValues(in, dataType(dataColumn)))
+                .build();
+    }
+
+    private static DataType dataType(DatasourceColumn column) {
+        return (column == null) ? null : column.getDataType();
+    }
+
+    private void writeColumn(DataOutputStream out, DatasourceColumn column) throws IOException {
+        out.writeBoolean(column != null);
+        if (column != null) {
+            writeString(out, column.getTableName());
+            writeString(out, column.getName());
+            writeString(out, column.getDataType().name());
+        }
+    }
+
+    private DatasourceColumn readColumn(DataInputStream in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        return DatasourceColumn.builder()
+                .tableName(readString(in))
+                .name(readString(in))
+                .dataType(DataType.valueOf(readString(in)))
+                .build();
+    }
+
+    private void writeValues(DataOutputStream out, DataType dataType, List<Object> values) throws IOException {
+        final int size = values.size();
+        writeVarint(out, size);
+
+        final BitSet nulls = new BitSet(size);
+        for (int i = 0; i < size; i++) {
+            if (values.get(i) == null) {
+                nulls.set(i);
+            }
+        }
+        out.writeBoolean(!nulls.isEmpty());
+        if (!nulls.isEmpty()) {
+            writeBitmap(out, nulls, size);
+        }
+
+        switch ((dataType == null) ? DataType.STRING : dataType) {
+            case INTEGER:
+            case LONG:
+                writeLongs(out, values);
+                break;
+            case DOUBLE:
+                writeDoubles(out, values);
+                break;
+            case BOOLEAN:
+                final BitSet bits = new BitSet(size);
+                for (int i = 0; i < size; i++) {
+                    if (Boolean.TRUE.equals(values.get(i))) {
+                        bits.set(i);
+                    }
+                }
+                writeBitmap(out, bits, size);
+                break;
+            case DATE:
+                for (Object value : values) {
+                    if (value != null) {
+                        writeVarint(out, zigzag(((LocalDate) value).toEpochDay()));
+                    }
+                }
+                break;
+            case DATE_TIME:
+                for (Object value : values) {
+                    if (value != null) {
+                        writeVarint(out, zigzag(((Instant) value).getEpochSecond()));
+                        writeVarint(out, ((Instant) value).getNano());
+                    }
+                }
+                break;
+            case STRING:
+                writeDictionaryCodes(out, values, String::valueOf);
+                break;
+            case LIST_OF_INTEGERS:
+                for (Object value : values) {
+                    if (value != null) {
+                        final List<?> list = (List<?>) value;
+                        writeVarint(out, list.size());
+                        for (Object element : list) {
+                            writeVarint(out, zigzag(((Number) element).longValue()));
+                        }
+                    }
+                }
+                break;
+            case LIST_OF_STRINGS:
+                writeStringLists(out, values);
+                break;
+            default:
+                writeDictionaryCodes(out, values, objectMapper::writeValueAsString);
+                break;
+        }
+    }
+
+    private List<Object> readValues(DataInputStream in, DataType dataType) throws IOException {
+        final int size = (int) readVarint(in);
+        final BitSet nulls = in.readBoolean() ? readBitmap(in, size) : new BitSet();
+        final Object[] result = new Object[size];
+
+        switch ((dataType == null) ? DataType.STRING : dataType) {
+            case INTEGER:
+            case LONG:
+                long previous = 0;
+                for (int i = nulls.nextClearBit(0); i < size; i = nulls.nextClearBit(i + 1)) {
+                    previous += unzigzag(readVarint(in));
+                    result[i] = (dataType == DataType.INTEGER) ? (Object) (int) previous : (Object) previous;
+                }
+                break;
+            case DOUBLE:
+                for (int i = nulls.nextClearBit(0); i < size; i = nulls.nextClearBit(i + 1)) {
+                    result[i] = in.readDouble();
+                }
+                break;
+            case BOOLEAN:
+                final BitSet bits = readBitmap(in, size);
+                for (int i = nulls.nextClearBit(0); i < size; i = nulls.nextClearBit(i + 1)) {
+                    result[i] = bits.get(i);
+                }
+                break;
+            case DATE:
+                for (int i = nulls.nextClearBit(0); i < size; i = nulls.nextClearBit(i + 1)) {
+                    result[i] = LocalDate.ofEpochDay(unzigzag(readVarint(in)));
+                }
+                break;
+            case DATE_TIME:
+                for (int i = nulls.nextClearBit(0); i < size; i = nulls.nextClearBit(i + 1)) {
+                    result[i] = Instant.ofEpochSecond(unzigzag(readVarint(in)), readVarint(in));
+                }
+                break;
+            case STRING:
+                readDictionaryCodes(in, result, nulls, readDictionary(in));
+                break;
+            case LIST_OF_INTEGERS:
+                for (int i = nulls.nextClearBit(0); i < size; i = nulls.nextClearBit(i + 1)) {
+                    final int listSize = (int) readVarint(in);
+                    final List<Integer> list = new ArrayList<>(listSize);
+                    for (int j = 0; j < listSize; j++) {
+                        list.add((int) unzigzag(readVarint(in)));
+                    }
+                    result[i] = list;
+                }
+                break;
+            case LIST_OF_STRINGS:
+                final Object[] elements = readDictionary(in);
+                for (int i = nulls.nextClearBit(0); i < size; i = nulls.nextClearBit(i + 1)) {
+                    final int listSize = (int) readVarint(in);
+                    final List<Object> list = new ArrayList<>(listSize);
+                    for (int j = 0; j < listSize; j++) {
+                        list.add(elements[(int) readVarint(in)]);
+                    }
+                    result[i] = list;
+                }
+                break;
+            default:
+                final Object[] documents = readDictionary(in);
+                for (int i = 0; i < documents.length; i++) {
+                    documents[i] = objectMapper.readValue((String) documents[i], Object.class);
+                }
+                readDictionaryCodes(in, result, nulls, documents);
+                break;
+        }
+        return Arrays.asList(result);
+    }
+
+    private void writeLongs(DataOutputStream out, List<Object> values) throws IOException {
+        long previous = 0;
+        if (values instanceof IntValues) {
+            for (int value : ((IntValues) values).getValues()) {
+                writeVarint(out, zigzag(value - previous));
+                previous = value;
+            }
+        } else if (values instanceof LongValues) {
+            for (long value : ((LongValues) values).getValues()) {
+                writeVarint(out, zigzag(value - previous));
+                previous = value;
+            }
+        } else {
+            for (Object value : values) {
+                if (value != null) {
+                    final long current = ((Number) value).longValue();
+                    writeVarint(out, zigzag(current - previous));
+                    previous = current;
+                }
+            }
+        }
+    }
+
+    private void writeDoubles(DataOutputStream out, List<Object> values) throws IOException {
+        if (values instanceof DoubleValues) {
+            for (double value : ((DoubleValues) values).getValues()) {
+                out.writeDouble(value);
+            }
+        } else {
+            for (Object value : values) {
+                if (value != null) {
+                    out.writeDouble(((Number) value).doubleValue());
+                }
+            }
+        }
+    }
+
+    private void writeDictionaryCodes(DataOutputStream out, List<Object> values, Encoder encoder) throws IOException {
+        final Map<String, Integer> dictionary = new LinkedHashMap<>();
+        final int[] codes = new int[values.size()];
+        int count = 0;
+        for (Object value : values) {
+            if (value != null) {
+                final String encoded = encoder.encode(value);
+                codes[count++] = dictionary.computeIfAbsent(encoded, v -> dictionary.size());
+            }
+        }
+        writeDictionary(out, dictionary);
+        for (int i = 0; i < count; i++) {
+            writeVarint(out, codes[i]);
+        }
+    }
+
+    private void writeStringLists(DataOutputStream out, List<Object> values) throws IOException {
+        final Map<String, Integer> dictionary = new LinkedHashMap<>();
+        for (Object value : values) {
+            if (value != null) {
+                for (Object element : (List<?>) value) {
+                    dictionary.computeIfAbsent(String.valueOf(element), v -> dictionary.size());
+                }
+            }
+        }
+        writeDictionary(out, dictionary);
+        for (Object value : values) {
+            if (value != null) {
+                final List<?> list = (List<?>) value;
+                writeVarint(out, list.size());
+                for (Object element : list) {
+                    writeVarint(out, dictionary.get(String.valueOf(element)));
+                }
+            }
+        }
+    }
+
+    private static void writeDictionary(DataOutputStream out, Map<String, Integer> dictionary) throws IOException {
+        writeVarint(out, dictionary.size());
+        for (String entry : dictionary.keySet()) {
+            writeString(out, entry);
+        }
+    }
+
+    private static Object[] readDictionary(DataInputStream in) throws IOException {
+        final Object[] dictionary = new Object[(int) readVarint(in)];
+        for (int i = 0; i < dictionary.length; i++) {
+            dictionary[i] = readString(in);
+        }
+        return dictionary;
+    }
+
+    private static void readDictionaryCodes(DataInputStream in, Object[] result, BitSet nulls, Object[] dictionary) throws IOException {
+        for (int i = nulls.nextClearBit(0); i < result.length; i = nulls.nextClearBit(i + 1)) {
+            result[i] = dictionary[(int) readVarint(in)];
+        }
+    }
+
+    private static void writeBitmap(DataOutputStream out, BitSet bits, int size) throws IOException {
+        out.write(Arrays.copyOf(bits.toByteArray(), (size + 7) / 8));
+    }
+
+    private static BitSet readBitmap(DataInputStream in, int size) throws IOException {
+        final byte[] bytes = new byte[(size + 7) / 8];
+        in.readFully(bytes);
+        return BitSet.valueOf(bytes);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarint(out, bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        final byte[] bytes = new byte[(int) readVarint(in)];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeVarint(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarint(DataInputStream in) throws IOException {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            final int b = in.readUnsignedByte();
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    @FunctionalInterface
+    private interface Encoder {
+        String encode(Object value) throws IOException;
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ *   Copyright 2018-2020 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.filippov.data.validation.tool.rest.datasource.example.dvt;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.filippov.data.validation.tool.model.ColumnData;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+
+import java.io.IOException;
+
+/**
+ * Serves {@link ColumnData} in the {@link ColumnDataBinaryCodec} format to clients which explicitly accept it.
+ */
+public class ColumnDataBinaryHttpMessageConverter extends AbstractHttpMessageConverter<ColumnData> {
+    private final ColumnDataBinaryCodec codec;
+
+    public ColumnDataBinaryHttpMessageConverter(ObjectMapper objectMapper) {
+        super(MediaType.parseMediaType(ColumnDataBinaryCodec.MEDIA_TYPE));
+        this.codec = new ColumnDataBinaryCodec(objectMapper);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return ColumnData.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    protected ColumnData readInternal(Class<? extends ColumnData> clazz, HttpInputMessage inputMessage) throws IOException {
+        return codec.read(inputMessage.getBody());
+    }
+
+    @Override
+    protected void writeInternal(ColumnData columnData, HttpOutputMessage outputMessage) throws IOException {
+        codec.write(columnData, outputMessage.getBody());
+    }
+}
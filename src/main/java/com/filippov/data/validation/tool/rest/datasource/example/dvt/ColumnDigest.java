@@ -0,0 +1,52 @@
+/*
+ *   Copyright 2018-2020 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.filippov.data.validation.tool.rest.datasource.example.dvt;
+
+import com.filippov.data.validation.tool.model.DatasourceColumn;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.List;
+
+/**
+ * Digests of a range of nodes of one level of a column digest tree. Level 0 nodes are buckets of
+ * {@link #bucketSize} rows, the top level ({@link #levels} - 1) has a single node covering the whole column.
+ * Node {@code i} of a level has nodes {@code 2 * i} and {@code 2 * i + 1} of the level below as children.
+ */
+@Getter
+@Builder
+@ToString
+public class ColumnDigest {
+    private final DatasourceColumn keyColumn;
+    private final DatasourceColumn dataColumn;
+    private final int size;
+    private final int bucketSize;
+    private final int levels;
+    private final int level;
+    private final List<RangeDigest> digests;
+
+    @Getter
+    @Builder
+    @ToString
+    public static class RangeDigest {
+        private final int index;
+        private final int offset;
+        private final int limit;
+        private final String digest;
+    }
+}
@@ -21,71 +21,241 @@ import com.filippov.data.validation.tool.model.ColumnData;
 import com.filippov.data.validation.tool.model.DatasourceColumn;
 import com.filippov.data.validation.tool.model.DatasourceMetadata;
 import com.filippov.data.validation.tool.model.DatasourceTable;
-import com.filippov.data.validation.tool.rest.datasource.example.service.CompaniesService;
+import com.filippov.data.validation.tool.rest.datasource.example.cache.ColumnDataCache;
+import com.filippov.data.validation.tool.rest.datasource.example.config.ApplicationProperties;
+import com.filippov.data.validation.tool.rest.datasource.example.digest.DigestService;
+import com.filippov.data.validation.tool.rest.datasource.example.digest.DigestTree;
+import com.filippov.data.validation.tool.rest.datasource.example.metrics.DataValidationToolMetrics;
 import com.filippov.data.validation.tool.rest.datasource.example.service.DataService;
-import com.filippov.data.validation.tool.rest.datasource.example.service.DepartmentsService;
-import com.filippov.data.validation.tool.rest.datasource.example.service.UsersService;
+import com.filippov.data.validation.tool.rest.datasource.example.storage.KeyIndex;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
-import java.util.function.Function;
+
+import static java.util.stream.Collectors.toList;
 
 @Slf4j
 @RestController
 public class DataValidationToolController extends AbstractDataValidationToolController {
 
-    private final StaticDataValidationToolMetadataProvider metadataProvider;
-    private final Map<String, DataService<?>> serviceMap;
+    private final DatasourceRegistry datasourceRegistry;
+    private final ColumnDataCache columnDataCache;
+    private final DigestService digestService;
+    private final DataValidationToolMetrics metrics;
+    private final boolean primitiveColumns;
 
-    public DataValidationToolController(StaticDataValidationToolMetadataProvider metadataProvider,
-                                        UsersService usersService,
-                                        DepartmentsService departmentsService,
-                                        CompaniesService companiesService) {
+    public DataValidationToolController(DatasourceRegistry datasourceRegistry,
+                                        ApplicationProperties applicationProperties,
+                                        ColumnDataCache columnDataCache,
+                                        DigestService digestService,
+                                        DataValidationToolMetrics metrics) {
         super();
-        this.metadataProvider = metadataProvider;
-        this.serviceMap = Map.of(
-                StaticDataValidationToolMetadataProvider.USERS_TABLE.getName(), usersService,
-                StaticDataValidationToolMetadataProvider.COMPANIES_TABLE.getName(), companiesService,
-                StaticDataValidationToolMetadataProvider.DEPARTMENTS_TABLE.getName(), departmentsService);
+        this.datasourceRegistry = datasourceRegistry;
+        this.columnDataCache = columnDataCache;
+        this.digestService = digestService;
+        this.metrics = metrics;
+        this.primitiveColumns = applicationProperties.getPrimitiveColumns();
     }
 
     @Override
     public DatasourceMetadata getMetadata() {
-        return metadataProvider.getDatasourceMetadata();
+        return datasourceRegistry.getDatasourceMetadata();
     }
 
     @Override
     public ColumnData getData(DatasourceColumn datasourceColumn, int offset, int limit) {
-        final DatasourceTable table = metadataProvider.getDatasourceTable(datasourceColumn.getTableName());
-        final DatasourceColumn keyColumn = metadataProvider.getDatasourceColumn(table, table.getPrimaryKey());
-        final DatasourceColumn valueColumn = metadataProvider.getDatasourceColumn(table, datasourceColumn.getName());
-
-        final Function<Object, Object> keyExtractor = metadataProvider.getExtractor(keyColumn);
-        final Function<Object, Object> valueExtractor = metadataProvider.getExtractor(valueColumn);
-
-        final List<Object> keys = new ArrayList<>();
-        final List<Object> values = new ArrayList<>();
-        serviceMap.get(table.getName()).getData(offset, limit)
-                .forEach(obj -> {
-                    keys.add(keyExtractor.apply(obj));
-                    values.add(valueExtractor.apply(obj));
+        final long start = System.nanoTime();
+        final DatasourceTable table = datasourceRegistry.getDatasourceTable(datasourceColumn.getTableName());
+        final DatasourceColumn keyColumn = datasourceRegistry.getDatasourceColumn(table, table.getPrimaryKey());
+        final DatasourceColumn valueColumn = datasourceRegistry.getDatasourceColumn(table, datasourceColumn.getName());
+
+        final ColumnData columnData = columnDataCache.get(table.getName(), valueColumn.getName(), offset, limit,
+                () -> readColumnData(datasourceRegistry.getDataService(table.getName()), keyColumn, valueColumn, offset, limit));
+        metrics.recordData(table.getName(), valueColumn.getName(), columnData.getKeys().size(), start);
+        return columnData;
+    }
+
+    /**
+     * Streams a window of a column as newline delimited JSON pages of up to {@code pageSize} rows.
+     * A page is read only when the previous one has been written, so big windows are never held in memory.
+     * Pages are written with blocking servlet writes on the Spring MVC async executor.
+     */
+    @GetMapping(value = "/data/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<ColumnData> streamData(@RequestParam String tableName,
+                                       @RequestParam String columnName,
+                                       @RequestParam int offset,
+                                       @RequestParam int limit,
+                                       @RequestParam(defaultValue = "1000") int pageSize) {
+        if (offset < 0 || limit < 0 || pageSize <= 0) {
+            throw new IllegalArgumentException("Offset and limit must not be negative and page size must be positive. Offset: "
+                    + offset + ", limit: " + limit + ", pageSize: " + pageSize);
+        }
+        final DatasourceTable table = datasourceRegistry.getDatasourceTable(tableName);
+        final DatasourceColumn keyColumn = datasourceRegistry.getDatasourceColumn(table, table.getPrimaryKey());
+        final DatasourceColumn valueColumn = datasourceRegistry.getDatasourceColumn(table, columnName);
+
+        final DataService<?> dataService = datasourceRegistry.getDataService(table.getName());
+        final int from = Math.min(offset, dataService.getSize());
+        final int to = from + Math.min(limit, dataService.getSize() - from);
+        final int pages = (int) (((long) to - from + pageSize - 1) / pageSize);
+        return Flux.range(0, pages)
+                .map(page -> {
+                    final int pageOffset = from + page * pageSize;
+                    return readColumnData(dataService, keyColumn, valueColumn, pageOffset, Math.min(pageSize, to - pageOffset));
                 });
+    }
+
+    /**
+     * Keyset pagination: returns up to {@code limit} rows with the primary key greater than {@code lastKey},
+     * ordered by the key. The next page is requested with the last key of the current one.
+     * Rows with the same key are never split between pages, so a page can be a bit bigger than the limit.
+     */
+    @GetMapping("/data/after")
+    public ColumnData getDataAfter(@RequestParam String tableName,
+                                   @RequestParam String columnName,
+                                   @RequestParam(required = false) Integer lastKey,
+                                   @RequestParam int limit) {
+        final DatasourceTable table = datasourceRegistry.getDatasourceTable(tableName);
+        final DatasourceColumn keyColumn = datasourceRegistry.getDatasourceColumn(table, table.getPrimaryKey());
+        final DatasourceColumn valueColumn = datasourceRegistry.getDatasourceColumn(table, columnName);
+
+        final DataService<?> dataService = datasourceRegistry.getDataService(table.getName());
+        final KeyIndex keyIndex = dataService.getKeyIndex(keyColumn.getName());
+        final int from = keyIndex.positionAfter(lastKey);
+        final int to = keyIndex.pageEnd(from, limit);
+        if (keyIndex.isOrdered()) {
+            return getData(valueColumn, from, to - from);
+        }
 
+        final int[] rows = keyIndex.rows(from, to);
         return ColumnData.builder()
                 .keyColumn(keyColumn)
                 .dataColumn(valueColumn)
-                .keys(keys)
-                .values(values)
+                .keys(Arrays.asList(dataService.readRows(keyColumn.getName(), rows)))
+                .values(Arrays.asList(dataService.readRows(valueColumn.getName(), rows)))
+                .build();
+    }
+
+    /**
+     * Returns several columns of a table for the same window in one response, the keys are read and sent only once.
+     * The window is read once for all the columns. All columns of the table are returned when no column names are given.
+     */
+    @GetMapping("/data/batch")
+    public ColumnDataBatch getDataBatch(@RequestParam String tableName,
+                                        @RequestParam(required = false) List<String> columnNames,
+                                        @RequestParam int offset,
+                                        @RequestParam int limit) {
+        final DatasourceTable table = datasourceRegistry.getDatasourceTable(tableName);
+        final DatasourceColumn keyColumn = datasourceRegistry.getDatasourceColumn(table, table.getPrimaryKey());
+        final List<String> names = (columnNames == null || columnNames.isEmpty()) ? table.getColumns() : columnNames;
+
+        // the key column goes first, followed by the data columns
+        final List<DatasourceColumn> columns = new ArrayList<>(names.size() + 1);
+        columns.add(keyColumn);
+        for (String name : names) {
+            columns.add(datasourceRegistry.getDatasourceColumn(table, name));
+        }
+        final List<List<Object>> values = readColumns(datasourceRegistry.getDataService(table.getName()), columns, offset, limit);
+
+        return ColumnDataBatch.builder()
+                .keyColumn(keyColumn)
+                .dataColumns(columns.subList(1, columns.size()))
+                .keys(values.get(0))
+                .values(values.subList(1, values.size()))
+                .build();
+    }
+
+    /**
+     * Returns digests of {@code count} nodes of a level of the column digest tree starting at node {@code from}
+     * (the whole level by default). Without a level the single root digest is returned. Two datasources are compared
+     * by requesting the root and then the children of mismatched nodes down to level 0 buckets. A response has at most
+     * {@link DigestService#MAX_DIGESTS_PER_RESPONSE} digests, bigger levels are requested in parts.
+     */
+    @GetMapping("/digest")
+    public ColumnDigest getDigest(@RequestParam String tableName,
+                                  @RequestParam String columnName,
+                                  @RequestParam(defaultValue = "1000") int bucketSize,
+                                  @RequestParam(required = false) Integer level,
+                                  @RequestParam(defaultValue = "0") int from,
+                                  @RequestParam(required = false) Integer count) {
+        final DatasourceTable table = datasourceRegistry.getDatasourceTable(tableName);
+        final DatasourceColumn keyColumn = datasourceRegistry.getDatasourceColumn(table, table.getPrimaryKey());
+        final DatasourceColumn valueColumn = datasourceRegistry.getDatasourceColumn(table, columnName);
+
+        final DigestTree tree = digestService.getDigestTree(table.getName(), datasourceRegistry.getDataService(table.getName()),
+                keyColumn.getName(), valueColumn.getName(), bucketSize);
+        final int treeLevel = (level != null) ? level : tree.getLevels() - 1;
+        final int nodeCount = tree.getNodeCount(treeLevel);
+        if (from < 0 || (count != null && count < 0)) {
+            throw new IllegalArgumentException("From and count must not be negative. From: " + from + ", count: " + count);
+        }
+        final int to = (count != null) ? (int) Math.min(nodeCount, (long) from + count) : nodeCount;
+        if (to - from > DigestService.MAX_DIGESTS_PER_RESPONSE) {
+            throw new IllegalArgumentException("At most " + DigestService.MAX_DIGESTS_PER_RESPONSE + " digests are returned"
+                    + " at once, request the level in parts with from and count. Requested: " + (to - from));
+        }
+
+        final List<ColumnDigest.RangeDigest> digests = new ArrayList<>(Math.max(0, to - from));
+        for (int index = from; index < to; index++) {
+            digests.add(ColumnDigest.RangeDigest.builder()
+                    .index(index)
+                    .offset(tree.getOffset(treeLevel, index))
+                    .limit(tree.getLimit(treeLevel, index))
+                    .digest(String.format("%016x", tree.getDigest(treeLevel, index)))
+                    .build());
+        }
+
+        return ColumnDigest.builder()
+                .keyColumn(keyColumn)
+                .dataColumn(valueColumn)
+                .size(tree.getSize())
+                .bucketSize(tree.getBucketSize())
+                .levels(tree.getLevels())
+                .level(treeLevel)
+                .digests(digests)
                 .build();
     }
 
     @Override
     public int getSize(DatasourceColumn datasourceColumn) {
-        final DatasourceTable table = metadataProvider.getDatasourceTable(datasourceColumn.getTableName());
-        final DatasourceColumn column = metadataProvider.getDatasourceColumn(table, datasourceColumn.getName());
-        return serviceMap.get(table.getName()).getSize();
+        final long start = System.nanoTime();
+        final DatasourceTable table = datasourceRegistry.getDatasourceTable(datasourceColumn.getTableName());
+        final DatasourceColumn column = datasourceRegistry.getDatasourceColumn(table, datasourceColumn.getName());
+        final int size = datasourceRegistry.getDataService(table.getName()).getSize();
+        metrics.recordSize(table.getName(), column.getName(), start);
+        return size;
+    }
+
+    private ColumnData readColumnData(DataService<?> dataService, DatasourceColumn keyColumn, DatasourceColumn valueColumn,
+                                      int offset, int limit) {
+        final List<List<Object>> columns = readColumns(dataService, List.of(keyColumn, valueColumn), offset, limit);
+
+        return ColumnData.builder()
+                .keyColumn(keyColumn)
+                .dataColumn(valueColumn)
+                .keys(columns.get(0))
+                .values(columns.get(1))
+                .build();
+    }
+
+    /**
+     * Reads the window once for all the columns, the result has the values of every column in the order of the columns.
+     */
+    private List<List<Object>> readColumns(DataService<?> dataService, List<DatasourceColumn> columns, int offset, int limit) {
+        final List<String> names = columns.stream().map(DatasourceColumn::getName).collect(toList());
+        if (primitiveColumns) {
+            return dataService.readPrimitiveColumns(names, columns.stream().map(DatasourceColumn::getDataType).collect(toList()),
+                    offset, limit);
+        }
+        return Arrays.stream(dataService.readColumns(names, offset, limit))
+                .map(Arrays::asList)
+                .collect(toList());
     }
 }
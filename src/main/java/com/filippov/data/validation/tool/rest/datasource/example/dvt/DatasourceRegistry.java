@@ -0,0 +1,116 @@
+/*
+ *   Copyright 2018-2020 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.filippov.data.validation.tool.rest.datasource.example.dvt;
+
+import com.filippov.data.validation.tool.model.DatasourceColumn;
+import com.filippov.data.validation.tool.model.DatasourceMetadata;
+import com.filippov.data.validation.tool.model.DatasourceTable;
+import com.filippov.data.validation.tool.rest.datasource.example.config.ApplicationProperties;
+import com.filippov.data.validation.tool.rest.datasource.example.service.CompaniesService;
+import com.filippov.data.validation.tool.rest.datasource.example.service.DataService;
+import com.filippov.data.validation.tool.rest.datasource.example.service.DepartmentsService;
+import com.filippov.data.validation.tool.rest.datasource.example.service.TableService;
+import com.filippov.data.validation.tool.rest.datasource.example.service.UsersService;
+import com.filippov.data.validation.tool.rest.datasource.example.storage.TableStoreFactory;
+import com.filippov.data.validation.tool.rest.datasource.example.table.DeclaredTable;
+import com.filippov.data.validation.tool.rest.datasource.example.table.TableDefinition;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * All tables of the datasource: the built-in users, departments and companies and the tables declared
+ * in the application properties, with their metadata and services.
+ */
+@Slf4j
+@Component
+public class DatasourceRegistry implements SmartInitializingSingleton {
+    private final StaticDataValidationToolMetadataProvider metadataProvider;
+    private final Map<String, DataService<?>> services = new HashMap<>();
+    private final Map<String, DeclaredTable> declaredTables = new HashMap<>();
+    private final List<TableService> tableServices = new ArrayList<>();
+    private final DatasourceMetadata metadata;
+
+    public DatasourceRegistry(StaticDataValidationToolMetadataProvider metadataProvider,
+                              ApplicationProperties applicationProperties,
+                              TableStoreFactory tableStoreFactory,
+                              UsersService usersService,
+                              DepartmentsService departmentsService,
+                              CompaniesService companiesService) {
+        this.metadataProvider = metadataProvider;
+        services.put(StaticDataValidationToolMetadataProvider.USERS_TABLE.getName(), usersService);
+        services.put(StaticDataValidationToolMetadataProvider.COMPANIES_TABLE.getName(), companiesService);
+        services.put(StaticDataValidationToolMetadataProvider.DEPARTMENTS_TABLE.getName(), departmentsService);
+
+        final DatasourceMetadata staticMetadata = metadataProvider.getDatasourceMetadata();
+        final List<DatasourceTable> tables = new ArrayList<>(staticMetadata.getTables());
+        final List<DatasourceColumn> columns = new ArrayList<>(staticMetadata.getColumns());
+        for (TableDefinition definition : applicationProperties.getTables()) {
+            final DeclaredTable table = new DeclaredTable(definition);
+            if (declaredTables.containsKey(table.getName())) {
+                throw new IllegalArgumentException("Table: " + table.getName() + " is declared more than once");
+            }
+            if (services.containsKey(table.getName())) {
+                throw new IllegalArgumentException("Declared table: " + table.getName() + " has the name of a built-in table");
+            }
+            final TableService tableService = new TableService(table, tableStoreFactory);
+            declaredTables.put(table.getName(), table);
+            tableServices.add(tableService);
+            services.put(table.getName(), tableService);
+            tables.add(table.getTable());
+            columns.addAll(table.getColumns());
+            log.debug("Table: {} has been declared. Rows: {}, columns: {}", table.getName(), table.getSize(), table.getColumns().size());
+        }
+        this.metadata = DatasourceMetadata.builder()
+                .tables(tables)
+                .columns(columns)
+                .build();
+    }
+
+    /**
+     * Declared tables are generated concurrently with the built-in ones, the application waits for them after all beans are created.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        tableServices.forEach(TableService::afterSingletonsInstantiated);
+    }
+
+    public DatasourceMetadata getDatasourceMetadata() {
+        return metadata;
+    }
+
+    public DatasourceTable getDatasourceTable(String tableName) {
+        final DeclaredTable declaredTable = declaredTables.get(tableName);
+        return (declaredTable != null) ? declaredTable.getTable() : metadataProvider.getDatasourceTable(tableName);
+    }
+
+    public DatasourceColumn getDatasourceColumn(DatasourceTable table, String columnName) {
+        final DeclaredTable declaredTable = declaredTables.get(table.getName());
+        return (declaredTable != null) ? declaredTable.getColumn(columnName) : metadataProvider.getDatasourceColumn(table, columnName);
+    }
+
+    public DataService<?> getDataService(String tableName) {
+        return Optional.ofNullable(services.get(tableName))
+                .orElseThrow(() -> new IllegalArgumentException("Table with table name: " + tableName + " wasn't found"));
+    }
+}
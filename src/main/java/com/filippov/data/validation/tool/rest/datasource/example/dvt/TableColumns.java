@@ -0,0 +1,117 @@
+/*
+ *   Copyright 2018-2020 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.filippov.data.validation.tool.rest.datasource.example.dvt;
+
+import com.filippov.data.validation.tool.model.DatasourceColumn;
+import com.filippov.data.validation.tool.model.DatasourceTable;
+import lombok.Getter;
+
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Columns of a table in the order of its metadata, found by name through a single index. Extractors are generated
+ * from the getters of the model class, so they can't point to a wrong field. The getters return boxed and nullable
+ * values, so the extractors return the boxes the rows already have.
+ */
+public class TableColumns {
+    @Getter
+    private final DatasourceTable table;
+    @Getter
+    private final Class<?> modelClass;
+    private final DatasourceColumn[] columns;
+    private final Function<Object, Object>[] extractors;
+    private final Map<String, Integer> indexes = new HashMap<>();
+
+    @SuppressWarnings("unchecked")
+    public TableColumns(DatasourceTable table, Class<?> modelClass, List<DatasourceColumn> datasourceColumns) {
+        this.table = table;
+        this.modelClass = modelClass;
+        this.columns = new DatasourceColumn[table.getColumns().size()];
+        this.extractors = new Function[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            final String columnName = table.getColumns().get(i);
+            columns[i] = datasourceColumns.stream()
+                    .filter(column -> column.getTableName().equals(table.getName()) && column.getName().equals(columnName))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("Metadata of column: " + columnName
+                            + " wasn't found for table: " + table.getName()));
+            extractors[i] = generateExtractor(modelClass, columnName);
+            indexes.put(columnName, i);
+        }
+    }
+
+    public int size() {
+        return columns.length;
+    }
+
+    public int indexOf(String columnName) {
+        return Optional.ofNullable(indexes.get(columnName))
+                .orElseThrow(() -> new IllegalArgumentException("Column with name: "
+                        + columnName + " wasn't found for table: " + table.getName()));
+    }
+
+    public DatasourceColumn getColumn(int index) {
+        return columns[index];
+    }
+
+    public Function<Object, Object> getExtractor(int index) {
+        return extractors[index];
+    }
+
+    /**
+     * Binds the getter of the field to a {@link Function} the same way the compiler binds a method reference.
+     */
+    @SuppressWarnings("unchecked")
+    static Function<Object, Object> generateExtractor(Class<?> modelClass, String fieldName) {
+        final Method getter = findGetter(modelClass, fieldName);
+        try {
+            final MethodHandles.Lookup lookup = MethodHandles.lookup();
+            final MethodHandle handle = lookup.unreflect(getter);
+            return (Function<Object, Object>) LambdaMetafactory.metafactory(lookup,
+                    "apply",
+                    MethodType.methodType(Function.class),
+                    MethodType.methodType(Object.class, Object.class),
+                    handle,
+                    handle.type())
+                    .getTarget()
+                    .invokeExact();
+        } catch (Throwable e) {
+            throw new IllegalStateException("Extractor of field: " + fieldName + " can't be generated for model: " + modelClass.getName(), e);
+        }
+    }
+
+    private static Method findGetter(Class<?> modelClass, String fieldName) {
+        final String suffix = Character.toUpperCase(fieldName.charAt(0)) + fieldName.substring(1);
+        for (String prefix : new String[]{"get", "is"}) {
+            try {
+                return modelClass.getMethod(prefix + suffix);
+            } catch (NoSuchMethodException e) {
+                // tries the next prefix
+            }
+        }
+        throw new IllegalStateException("Model: " + modelClass.getName() + " doesn't have a getter of field: " + fieldName);
+    }
+}
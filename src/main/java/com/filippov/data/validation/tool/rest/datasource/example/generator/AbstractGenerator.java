@@ -16,16 +16,38 @@
 
 package com.filippov.data.validation.tool.rest.datasource.example.generator;
 
+import com.filippov.data.validation.tool.rest.datasource.example.config.ApplicationProperties;
+
 import java.time.DateTimeException;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.List;
 
 import static java.util.Arrays.asList;
+import static java.util.stream.Collectors.toUnmodifiableList;
+
+public abstract class AbstractGenerator<T> implements DataGenerator<T> {
+    private static final int DATES_STREAM = 1;
+    private static final int COUNTRIES_STREAM = 2;
+    private static final long SECONDS_PER_DAY = 24 * 60 * 60;
 
-public abstract class AbstractGenerator<T> implements DataGenerator {
     protected final List<LocalDate> dates = generateDates();
+    // instants are shared by all rows with the same date instead of being created per row
+    protected final List<Instant> dateTimes = dates.stream()
+            .map(date -> date.atStartOfDay().toInstant(ZoneOffset.UTC))
+            .collect(toUnmodifiableList());
     protected final List<String> countries = asList("Ukraine", "USA", "Germany", "Switzerland", "Sweden", "Great Britain");
+    protected final GeneratorProfile profile;
+    private final IndexDistribution dateIndexes;
+    private final IndexDistribution countryIndexes;
+
+    protected AbstractGenerator(ApplicationProperties applicationProperties) {
+        this.profile = new GeneratorProfile(applicationProperties);
+        this.dateIndexes = profile.values(dates.size());
+        this.countryIndexes = profile.values(countries.size());
+    }
 
     private static List<LocalDate> generateDates() {
         final List<LocalDate> result = new ArrayList<>();
@@ -44,14 +66,23 @@ public abstract class AbstractGenerator<T> implements DataGenerator {
     }
 
     protected LocalDate getLocalDateById(int id) {
-        return (id < dates.size())
-                ? dates.get(id)
-                : dates.get(id % dates.size());
+        final int index = dateIndexes.index(DATES_STREAM, id);
+        return profile.hasValueCardinality()
+                ? dates.get(0).plusDays(index)
+                : dates.get(index);
+    }
+
+    protected Instant getInstantById(int id) {
+        final int index = dateIndexes.index(DATES_STREAM, id);
+        return profile.hasValueCardinality()
+                ? dateTimes.get(0).plusSeconds(index * SECONDS_PER_DAY)
+                : dateTimes.get(index);
     }
 
     protected String getCountry(int id) {
-        return (id < countries.size())
-                ? countries.get(id)
-                : countries.get(id % countries.size());
+        final int index = countryIndexes.index(COUNTRIES_STREAM, id);
+        return profile.hasValueCardinality()
+                ? "country-" + index
+                : countries.get(index);
     }
 }
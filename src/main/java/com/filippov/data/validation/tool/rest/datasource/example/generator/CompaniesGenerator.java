@@ -23,23 +23,36 @@ import com.filippov.data.validation.tool.rest.datasource.example.utils.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
-import java.time.ZoneOffset;
 import java.util.List;
 import java.util.stream.IntStream;
 
-import static java.util.Arrays.asList;
-import static java.util.Collections.singletonList;
 import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toUnmodifiableList;
 
 @Slf4j
 @Component
 public class CompaniesGenerator extends AbstractGenerator<Company> {
+    // nested lists are immutable, so all companies share the same instances instead of getting their own copies
+    private static final List<Integer> EVEN_CATEGORIES = List.of(10, 20, 150, 5, 1);
+    private static final List<Integer> ODD_CATEGORIES = List.of(15);
+    private static final List<String> MANY_COMPETITORS = List.of("Google", "Amazon", "Apple", "Netflix");
+    private static final List<String> ONE_COMPETITOR = List.of("Facebook");
+    private static final int CATEGORIES_STREAM = 4;
+
     private final Integer numberOfCompanies;
     private final Integer percentOfDiscrepancies;
+    // with a nested list skew even companies get views of 1..sizeOfNestedLists of Zipf distributed sizes
+    private final List<Integer> allCategories;
+    private final IndexDistribution categoriesSizes;
 
     public CompaniesGenerator(ApplicationProperties applicationProperties) {
+        super(applicationProperties);
         this.numberOfCompanies = applicationProperties.getNumberOfCompanies();
         this.percentOfDiscrepancies = applicationProperties.getPercentOfDiscrepancies();
+        this.allCategories = IntStream.rangeClosed(1, applicationProperties.getSizeOfNestedLists())
+                .boxed()
+                .collect(toUnmodifiableList());
+        this.categoriesSizes = profile.nestedListSizes(allCategories.size());
     }
 
     @Override
@@ -47,23 +60,36 @@ public class CompaniesGenerator extends AbstractGenerator<Company> {
         final Timer timer = Timer.start();
         log.debug("Companies data set generation has started");
 
-        final List<Company> result = IntStream.range(1, numberOfCompanies + 1)
-                .mapToObj(id -> needDiscrepancies(id) ? generateCompanyWithDiscrepancy(id) : generateNormalCompany(id))
+        final List<Company> result = IntStream.range(0, getSize())
+                .mapToObj(this::generate)
                 .collect(toList());
 
-        if (percentOfDiscrepancies != 0) {
-            log.debug("Generation additional 100 companies");
-            // generate additional elements
-            IntStream.range(numberOfCompanies + 1, numberOfCompanies + 101)
-                    .mapToObj(this::generateNormalCompany)
-                    .forEach(result::add);
-        }
-
         log.debug("Companies data set generation has finished. Generated: {} companies. Execution time: {} ms.", result.size(), timer.stop());
         MemoryUtils.logMemoryUsage();
         return result;
     }
 
+    @Override
+    public Company generate(int index) {
+        final int id = index + 1;
+        if (id > numberOfCompanies) {
+            // additional elements
+            return generateNormalCompany(id);
+        }
+        return needDiscrepancies(id) ? generateCompanyWithDiscrepancy(id) : generateNormalCompany(id);
+    }
+
+    @Override
+    public boolean isOrderedByPrimaryKey() {
+        // additional elements go on with the ids of the main ones
+        return true;
+    }
+
+    @Override
+    public int getSize() {
+        return (percentOfDiscrepancies != 0) ? numberOfCompanies + 100 : numberOfCompanies;
+    }
+
     private boolean needDiscrepancies(int id) {
         if (percentOfDiscrepancies != 0) {
             return id % (100 * percentOfDiscrepancies) == 0;
@@ -76,14 +102,14 @@ public class CompaniesGenerator extends AbstractGenerator<Company> {
                 .intId(id)
                 .longId((long) Integer.MAX_VALUE + id)
                 .active(id % 2 == 0)
-                .companyName("company-" + id)
-                .lastRevenue((id % 2 == 0) ? id + 0.555 : id + 0.07)
-                .country((id % 10 == 0) ? null : getCountry(id))
-                .dateOfCreation(getLocalDateById(id).atStartOfDay().toInstant(ZoneOffset.UTC))
+                .companyName(profile.string("company-" + id))
+                .lastRevenue(profile.isNull("lastRevenue", id) ? null : (id % 2 == 0) ? id + 0.555 : id + 0.07)
+                .country((id % 10 == 0 || profile.isNull("country", id)) ? null : getCountry(id))
+                .dateOfCreation(profile.isNull("dateOfCreation", id) ? null : getInstantById(id))
                 .foundersFirstNames((id % 2 == 0) ? "Gavin,Richard,Big" : "Bill")
                 .foundersLastNames((id % 2 == 0) ? "Belson,Hendricks,Head" : "Gates")
-                .categories((id % 2 == 0) ? asList(10, 20, 150, 5, 1) : singletonList(15))
-                .competitors((id % 2 == 0) ? asList("Google", "Amazon", "Apple", "Netflix") : singletonList("Facebook"))
+                .categories(generateCategories(id))
+                .competitors((id % 2 == 0) ? MANY_COMPETITORS : ONE_COMPETITOR)
                 .build();
     }
 
@@ -92,16 +118,23 @@ public class CompaniesGenerator extends AbstractGenerator<Company> {
                 .intId(id)
                 .longId((long) Integer.MAX_VALUE + id + 1)
                 .active(id % 2 == 1)
-                .companyName("changed-company-" + id)
-                .lastRevenue((id % 2 == 0) ? id + 0.555 : id + 0.07)
-                .country((id % 10 == 0) ? null : getCountry(id))
-                .dateOfCreation(getLocalDateById(id).atStartOfDay().toInstant(ZoneOffset.UTC))
+                .companyName(profile.string("changed-company-" + id))
+                .lastRevenue(profile.isNull("lastRevenue", id) ? null : (id % 2 == 0) ? id + 0.555 : id + 0.07)
+                .country((id % 10 == 0 || profile.isNull("country", id)) ? null : getCountry(id))
+                .dateOfCreation(profile.isNull("dateOfCreation", id) ? null : getInstantById(id))
                 .foundersFirstNames((id % 2 == 1) ? "Gavin,Richard,Big" : "Bill")
                 .foundersLastNames((id % 2 == 0) ? "Belson,Hendricks,Head" : "Gates")
-                .categories((id % 2 == 0) ? asList(10, 20, 150, 5, 1) : singletonList(15))
-                .competitors((id % 2 == 1) ? asList("Google", "Amazon", "Apple", "Netflix") : singletonList("Facebook"))
+                .categories(generateCategories(id))
+                .competitors((id % 2 == 1) ? MANY_COMPETITORS : ONE_COMPETITOR)
                 .build();
     }
 
-
+    private List<Integer> generateCategories(int id) {
+        if (id % 2 != 0) {
+            return ODD_CATEGORIES;
+        }
+        return (categoriesSizes != null)
+                ? allCategories.subList(0, categoriesSizes.index(CATEGORIES_STREAM, id) + 1)
+                : EVEN_CATEGORIES;
+    }
 }
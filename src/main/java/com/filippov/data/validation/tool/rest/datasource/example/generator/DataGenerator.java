@@ -21,4 +21,20 @@ import java.util.List;
 public interface DataGenerator<T> {
 
     List<T> generate();
+
+    /**
+     * Generates the row with the given index. The result depends only on the index and the configuration,
+     * so it's the same row {@link #generate()} returns at this position.
+     */
+    T generate(int index);
+
+    int getSize();
+
+    /**
+     * Returns true if the primary keys of the generated rows never decrease with the index of the row,
+     * so the rows can be searched by key without reading every key.
+     */
+    default boolean isOrderedByPrimaryKey() {
+        return false;
+    }
 }
@@ -27,20 +27,31 @@ import org.springframework.stereotype.Component;
 import java.util.List;
 import java.util.stream.IntStream;
 
-import static java.util.Collections.singletonList;
 import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toUnmodifiableList;
 
 @Slf4j
 @Component
 public class DepartmentsGenerator extends AbstractGenerator<Department> {
+    private static final int EMPLOYEES_STREAM = 3;
+
     private final Integer numberOfDepartments;
     private final Integer percentOfDiscrepancies;
     private final Integer sizeOfNestedLists;
+    // employees depend only on the parity of a department id, so all departments share two immutable lists
+    private final List<Employee> evenEmployees;
+    private final List<Employee> oddEmployees;
+    // with a nested list skew departments get views of the even employees of Zipf distributed sizes
+    private final IndexDistribution employeesSizes;
 
     public DepartmentsGenerator(ApplicationProperties applicationProperties) {
+        super(applicationProperties);
         this.numberOfDepartments = applicationProperties.getNumberOfDepartments();
         this.percentOfDiscrepancies = applicationProperties.getPercentOfDiscrepancies();
         this.sizeOfNestedLists = applicationProperties.getSizeOfNestedLists();
+        this.evenEmployees = generateEvenEmployees(sizeOfNestedLists);
+        this.oddEmployees = generateOddEmployees();
+        this.employeesSizes = profile.nestedListSizes(sizeOfNestedLists);
     }
 
     @Override
@@ -48,23 +59,36 @@ public class DepartmentsGenerator extends AbstractGenerator<Department> {
         final Timer timer = Timer.start();
         log.debug("Departments data set generation has started");
 
-        final List<Department> result = IntStream.range(1, numberOfDepartments + 1)
-                .mapToObj(id -> needDiscrepancies(id) ? generateDepartmentWithDiscrepancies(id) : generateNormalDepartment(id))
+        final List<Department> result = IntStream.range(0, getSize())
+                .mapToObj(this::generate)
                 .collect(toList());
 
-        if (percentOfDiscrepancies != 0) {
-            log.debug("Generation additional 100 departments");
-            // generate additional elements
-            IntStream.range(sizeOfNestedLists + 1, sizeOfNestedLists + 101)
-                    .mapToObj(this::generateNormalDepartment)
-                    .forEach(result::add);
-        }
-
         log.debug("Departments data set generation has finished. Generated: {} departments. Execution time: {} ms.", result.size(), timer.stop());
         MemoryUtils.logMemoryUsage();
         return result;
     }
 
+    @Override
+    public Department generate(int index) {
+        if (index >= numberOfDepartments) {
+            // additional elements
+            return generateNormalDepartment(sizeOfNestedLists + 1 + index - numberOfDepartments);
+        }
+        final int id = index + 1;
+        return needDiscrepancies(id) ? generateDepartmentWithDiscrepancies(id) : generateNormalDepartment(id);
+    }
+
+    @Override
+    public boolean isOrderedByPrimaryKey() {
+        // additional elements start over with ids which follow the ids of the nested lists
+        return percentOfDiscrepancies == 0;
+    }
+
+    @Override
+    public int getSize() {
+        return (percentOfDiscrepancies != 0) ? numberOfDepartments + 100 : numberOfDepartments;
+    }
+
     private boolean needDiscrepancies(int id) {
         if (percentOfDiscrepancies != 0) {
             return id % (100 * percentOfDiscrepancies) == 0;
@@ -76,7 +100,7 @@ public class DepartmentsGenerator extends AbstractGenerator<Department> {
         return Department.builder()
                 .intId(id)
                 .longId((long) Integer.MAX_VALUE + id)
-                .name("department-" + id)
+                .name(profile.isNull("name", id) ? null : profile.string("department-" + id))
                 .numberOfEmployees(id * 10)
                 .employees(generateEmployees(id))
                 .build();
@@ -86,30 +110,39 @@ public class DepartmentsGenerator extends AbstractGenerator<Department> {
         return Department.builder()
                 .intId(id)
                 .longId((long) Integer.MAX_VALUE + id + 2)
-                .name("changed-department-" + id)
+                .name(profile.isNull("name", id) ? null : profile.string("changed-department-" + id))
                 .numberOfEmployees(id * 15)
                 .employees((id % 2 == 0) ? generateEmployees(id) : generateEmployees(id + 1))
                 .build();
     }
 
     private List<Employee> generateEmployees(int id) {
-        if (id % 2 == 0) {
-            return IntStream.range(1, sizeOfNestedLists + 1)
-                    .mapToObj(i -> Employee.builder()
-                            .intId(i)
-                            .longId((long) Integer.MAX_VALUE + i)
-                            .firstName("employee-name-" + 1)
-                            .lastName("employee-surname-" + 1)
-                            .build())
-                    .collect(toList());
-        } else {
-            return singletonList(
-                    Employee.builder()
-                            .intId(10)
-                            .longId((long) Integer.MAX_VALUE + 10)
-                            .firstName("John")
-                            .lastName("Doe")
-                            .build());
+        if (id % 2 != 0) {
+            return oddEmployees;
         }
+        return (employeesSizes != null)
+                ? evenEmployees.subList(0, employeesSizes.index(EMPLOYEES_STREAM, id) + 1)
+                : evenEmployees;
+    }
+
+    private static List<Employee> generateEvenEmployees(int sizeOfNestedLists) {
+        return IntStream.range(1, sizeOfNestedLists + 1)
+                .mapToObj(i -> Employee.builder()
+                        .intId(i)
+                        .longId((long) Integer.MAX_VALUE + i)
+                        .firstName("employee-name-" + 1)
+                        .lastName("employee-surname-" + 1)
+                        .build())
+                .collect(toUnmodifiableList());
+    }
+
+    private static List<Employee> generateOddEmployees() {
+        return List.of(
+                Employee.builder()
+                        .intId(10)
+                        .longId((long) Integer.MAX_VALUE + 10)
+                        .firstName("John")
+                        .lastName("Doe")
+                        .build());
     }
 }
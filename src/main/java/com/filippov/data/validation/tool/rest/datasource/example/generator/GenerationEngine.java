@@ -0,0 +1,194 @@
+/*
+ *   Copyright 2018-2020 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.filippov.data.validation.tool.rest.datasource.example.generator;
+
+import com.filippov.data.validation.tool.rest.datasource.example.config.ApplicationProperties;
+import com.filippov.data.validation.tool.rest.datasource.example.utils.Timer;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Generates tables on a dedicated fork-join pool. Every table is split into chunks of ids which are generated
+ * in parallel straight into a pre-sized array, and several tables can be generated at the same time.
+ */
+@Slf4j
+@Component
+public class GenerationEngine {
+    private final int parallelism;
+    private final int chunkSize;
+    private final ForkJoinPool pool;
+    private final MeterRegistry meterRegistry;
+
+    public GenerationEngine(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        this.parallelism = (applicationProperties.getGenerationParallelism() > 0)
+                ? applicationProperties.getGenerationParallelism()
+                : Runtime.getRuntime().availableProcessors();
+        final Integer chunkSize = applicationProperties.getGenerationChunkSize();
+        if (chunkSize == null || chunkSize < 1) {
+            throw new IllegalArgumentException("Property generation-chunk-size must be at least 1. Generation chunk size: " + chunkSize);
+        }
+        this.chunkSize = chunkSize;
+        this.pool = new ForkJoinPool(parallelism);
+        this.meterRegistry = meterRegistry;
+    }
+
+    public boolean isSequential() {
+        return parallelism == 1;
+    }
+
+    public <T> CompletableFuture<List<T>> generate(String tableName, DataGenerator<T> generator) {
+        if (isSequential()) {
+            return CompletableFuture.completedFuture(timed(tableName, generator::generate));
+        }
+        return CompletableFuture.supplyAsync(() -> timed(tableName, () -> generateInChunks(tableName, generator)), pool);
+    }
+
+    /**
+     * Generates the table in batches of chunks and passes the rows to the consumer in order of their indexes.
+     * Only one batch of rows is held in memory, so the table itself doesn't have to fit into the heap.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<Void> generate(String tableName, DataGenerator<T> generator, Consumer<T> consumer) {
+        final Supplier<Integer> generation = () -> {
+            final Timer timer = Timer.start();
+            log.debug("Table: {} generation has started", tableName);
+            final int size = generator.getSize();
+            final int batchSize = (int) Math.min(size, (long) parallelism * chunkSize);
+            final Object[] rows = new Object[batchSize];
+            for (int from = 0; from < size; from += batchSize) {
+                final int to = Math.min(size, from + batchSize);
+                if (isSequential()) {
+                    for (int index = from; index < to; index++) {
+                        rows[index - from] = generator.generate(index);
+                    }
+                } else {
+                    new ChunksTask(generator, rows, from, to, 0, (to - from + chunkSize - 1) / chunkSize).invoke();
+                }
+                for (int i = 0; i < to - from; i++) {
+                    consumer.accept((T) rows[i]);
+                    rows[i] = null;
+                }
+            }
+            log.debug("Table: {} generation has finished. Generated: {} rows in batches of {} rows. Execution time: {} ms.",
+                    tableName, size, batchSize, timer.stop());
+            return size;
+        };
+        if (isSequential()) {
+            timed(tableName, generation);
+            return CompletableFuture.completedFuture(null);
+        }
+        return CompletableFuture.runAsync(() -> timed(tableName, generation), pool);
+    }
+
+    /**
+     * Generates every column of a table with the function from the index of the column. Columns are independent,
+     * so they're generated in parallel on the pool of the engine.
+     */
+    public <R> CompletableFuture<List<R>> generateColumns(String tableName, int columns, IntFunction<R> generator) {
+        final Supplier<List<R>> generation = () -> {
+            final Timer timer = Timer.start();
+            log.debug("Table: {} generation has started", tableName);
+            final IntStream indexes = IntStream.range(0, columns);
+            final List<R> result = (isSequential() ? indexes : indexes.parallel())
+                    .mapToObj(generator)
+                    .collect(toList());
+            log.debug("Table: {} generation has finished. Generated: {} columns. Execution time: {} ms.",
+                    tableName, columns, timer.stop());
+            return result;
+        };
+        if (isSequential()) {
+            return CompletableFuture.completedFuture(timed(tableName, generation));
+        }
+        return CompletableFuture.supplyAsync(() -> timed(tableName, generation), pool);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    private <R> R timed(String tableName, Supplier<R> generation) {
+        return meterRegistry.timer("data.generation", "table", tableName).record(generation);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> List<T> generateInChunks(String tableName, DataGenerator<T> generator) {
+        final Timer timer = Timer.start();
+        log.debug("Table: {} generation has started", tableName);
+
+        final int size = generator.getSize();
+        final Object[] rows = new Object[size];
+        final int chunks = (size + chunkSize - 1) / chunkSize;
+        if (chunks > 0) {
+            new ChunksTask(generator, rows, 0, size, 0, chunks).invoke();
+        }
+
+        log.debug("Table: {} generation has finished. Generated: {} rows in {} chunks on {} threads. Execution time: {} ms.",
+                tableName, size, chunks, parallelism, timer.stop());
+        return (List<T>) Arrays.asList(rows);
+    }
+
+    /**
+     * Generates rows [from, to) split into chunks, rows[i] is the row with index from + i.
+     */
+    private class ChunksTask extends RecursiveAction {
+        private final DataGenerator<?> generator;
+        private final Object[] rows;
+        private final int from;
+        private final int to;
+        private final int fromChunk;
+        private final int toChunk;
+
+        private ChunksTask(DataGenerator<?> generator, Object[] rows, int from, int to, int fromChunk, int toChunk) {
+            this.generator = generator;
+            this.rows = rows;
+            this.from = from;
+            this.to = to;
+            this.fromChunk = fromChunk;
+            this.toChunk = toChunk;
+        }
+
+        @Override
+        protected void compute() {
+            if (toChunk - fromChunk > 1) {
+                final int middle = (fromChunk + toChunk) >>> 1;
+                invokeAll(new ChunksTask(generator, rows, from, to, fromChunk, middle),
+                        new ChunksTask(generator, rows, from, to, middle, toChunk));
+                return;
+            }
+            final int chunkFrom = from + fromChunk * chunkSize;
+            final int chunkTo = Math.min(chunkFrom + chunkSize, to);
+            for (int index = chunkFrom; index < chunkTo; index++) {
+                rows[index - from] = generator.generate(index);
+            }
+        }
+    }
+}
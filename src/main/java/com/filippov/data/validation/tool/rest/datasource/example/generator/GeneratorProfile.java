@@ -0,0 +1,99 @@
+/*
+ *   Copyright 2018-2020 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.filippov.data.validation.tool.rest.datasource.example.generator;
+
+import com.filippov.data.validation.tool.rest.datasource.example.config.ApplicationProperties;
+import lombok.ToString;
+
+import java.util.Optional;
+
+/**
+ * Shape of the generated data: cardinality and skew of the columns with few distinct values, length of strings,
+ * nulls and sizes of nested lists. The default profile (all properties are 0) generates exactly the built-in data.
+ * Everything else is picked by a hash of the id and the column, so the data is the same in every run
+ * and nothing is allocated besides the values themselves.
+ */
+@ToString
+public class GeneratorProfile {
+    private static final int PERCENT = 100;
+    private static final int NULLS_STREAM = 0x6E756C6C;
+    private static final String PADDING = "abcdefghijklmnopqrstuvwxyz0123456789";
+
+    private final int valueCardinality;
+    private final double valueSkew;
+    private final int stringLength;
+    private final int percentOfNulls;
+    private final double nestedListSkew;
+
+    public GeneratorProfile(ApplicationProperties applicationProperties) {
+        this.valueCardinality = Optional.ofNullable(applicationProperties.getValueCardinality()).orElse(0);
+        this.valueSkew = Optional.ofNullable(applicationProperties.getValueSkew()).orElse(0.0);
+        this.stringLength = Optional.ofNullable(applicationProperties.getStringLength()).orElse(0);
+        this.percentOfNulls = Optional.ofNullable(applicationProperties.getPercentOfNulls()).orElse(0);
+        this.nestedListSkew = Optional.ofNullable(applicationProperties.getNestedListSkew()).orElse(0.0);
+        if (valueCardinality < 0 || valueSkew < 0 || stringLength < 0 || nestedListSkew < 0
+                || percentOfNulls < 0 || percentOfNulls > PERCENT) {
+            throw new IllegalArgumentException("Generator profile properties must not be negative and percent of nulls must be in [0, 100]. "
+                    + "Profile: " + this);
+        }
+    }
+
+    /**
+     * Indexes of the values of a column with few distinct values, e.g. countries. With a cardinality the column gets
+     * that many synthetic values instead of the built-in ones. Without a skew values are uniformly distributed,
+     * or cycled through in order of ids in the default profile.
+     */
+    public IndexDistribution values(int builtInSize) {
+        if (valueCardinality == 0 && valueSkew == 0) {
+            return IndexDistribution.cyclic(builtInSize);
+        }
+        final int size = hasValueCardinality() ? valueCardinality : builtInSize;
+        return (valueSkew > 0) ? IndexDistribution.zipf(size, valueSkew) : IndexDistribution.uniform(size);
+    }
+
+    public boolean hasValueCardinality() {
+        return valueCardinality > 0;
+    }
+
+    /**
+     * Sizes of nested lists minus one, Zipf distributed over [1, maxSize]. Returns null when lists keep their fixed sizes.
+     */
+    public IndexDistribution nestedListSizes(int maxSize) {
+        return (nestedListSkew > 0 && maxSize > 0) ? IndexDistribution.zipf(maxSize, nestedListSkew) : null;
+    }
+
+    /**
+     * Pads the value to the string length. Values stay unique, because they're only extended.
+     */
+    public String string(String value) {
+        if (value.length() >= stringLength) {
+            return value;
+        }
+        final StringBuilder result = new StringBuilder(stringLength).append(value).append('-');
+        while (result.length() < stringLength) {
+            result.append(PADDING, 0, Math.min(PADDING.length(), stringLength - result.length()));
+        }
+        return result.toString();
+    }
+
+    /**
+     * Whether the value of a nullable column is replaced with null, columns get independent nulls.
+     */
+    public boolean isNull(String column, int id) {
+        return percentOfNulls > 0 && SplitMix64.bounded(SplitMix64.hash(column.hashCode() ^ NULLS_STREAM, id), PERCENT) < percentOfNulls;
+    }
+}
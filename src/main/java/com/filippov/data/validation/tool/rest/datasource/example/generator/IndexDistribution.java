@@ -0,0 +1,65 @@
+/*
+ *   Copyright 2018-2020 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.filippov.data.validation.tool.rest.datasource.example.generator;
+
+/**
+ * Picks an index in [0, size) for a row id: in order of ids, uniformly or Zipf distributed by a hash of the id.
+ */
+public class IndexDistribution {
+    private final int size;
+    private final boolean cyclic;
+    private final ZipfDistribution zipf;
+
+    private IndexDistribution(int size, boolean cyclic, ZipfDistribution zipf) {
+        this.size = size;
+        this.cyclic = cyclic;
+        this.zipf = zipf;
+    }
+
+    /**
+     * id % size, which is how values have always been picked from the built-in lists.
+     */
+    public static IndexDistribution cyclic(int size) {
+        return new IndexDistribution(size, true, null);
+    }
+
+    public static IndexDistribution uniform(int size) {
+        return new IndexDistribution(size, false, null);
+    }
+
+    /**
+     * Index 0 is the most frequent one.
+     */
+    public static IndexDistribution zipf(int size, double exponent) {
+        return new IndexDistribution(size, false, new ZipfDistribution(size, exponent));
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * The stream separates columns: the same id gets independent indexes in different streams.
+     */
+    public int index(int stream, int id) {
+        if (cyclic) {
+            return id % size;
+        }
+        final long hash = SplitMix64.hash(stream, id);
+        return (zipf != null) ? zipf.sample(hash) - 1 : (int) SplitMix64.bounded(hash, size);
+    }
+}
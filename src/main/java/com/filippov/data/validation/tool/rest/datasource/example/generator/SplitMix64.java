@@ -0,0 +1,56 @@
+/*
+ *   Copyright 2018-2020 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.filippov.data.validation.tool.rest.datasource.example.generator;
+
+/**
+ * The finalizer of the SplitMix64 generator. It turns a row index into a well distributed pseudo-random value,
+ * so generated values depend only on the row and are the same in every run and on every thread.
+ */
+public final class SplitMix64 {
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private SplitMix64() {
+    }
+
+    public static long mix(long value) {
+        long z = value + GOLDEN_GAMMA;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Hash of a row within a stream of values identified by the seed, e.g. a column.
+     */
+    public static long hash(long seed, long row) {
+        return mix(mix(seed) ^ row);
+    }
+
+    /**
+     * Maps a hash to [0, bound), the bias is negligible for bounds much smaller than 2^64.
+     */
+    public static long bounded(long hash, long bound) {
+        return Long.remainderUnsigned(hash, bound);
+    }
+
+    /**
+     * Maps a hash to a double in [0, 1).
+     */
+    public static double unit(long hash) {
+        return (hash >>> 11) * 0x1.0p-53;
+    }
+}
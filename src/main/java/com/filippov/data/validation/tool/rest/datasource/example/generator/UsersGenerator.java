@@ -36,6 +36,7 @@ public class UsersGenerator extends AbstractGenerator<User> {
     private final Integer percentOfDiscrepancies;
 
     public UsersGenerator(ApplicationProperties applicationProperties) {
+        super(applicationProperties);
         this.numberOfUsers = applicationProperties.getNumberOfUsers();
         this.percentOfDiscrepancies = applicationProperties.getPercentOfDiscrepancies();
     }
@@ -45,21 +46,36 @@ public class UsersGenerator extends AbstractGenerator<User> {
         final Timer timer = Timer.start();
         log.debug("Users data set generation has started");
 
-        final List<User> result = IntStream.range(1, numberOfUsers + 1)
-                .mapToObj(id -> needDiscrepancies(id) ? generateUserWithDiscrepancies(id) : generateNormalUser(id))
+        final List<User> result = IntStream.range(0, getSize())
+                .mapToObj(this::generate)
                 .collect(toList());
 
-        if (percentOfDiscrepancies != 0) {
-            log.debug("Generation additional 100 users");
-            IntStream.range(numberOfUsers + 1, numberOfUsers + 101)
-                    .mapToObj(this::generateNormalUser)
-                    .forEach(result::add);
-        }
         log.debug("Users data set generation has finished. Generated: {} users. Execution time: {} ms.", result.size(), timer.stop());
         MemoryUtils.logMemoryUsage();
         return result;
     }
 
+    @Override
+    public User generate(int index) {
+        final int id = index + 1;
+        if (id > numberOfUsers) {
+            // additional elements
+            return generateNormalUser(id);
+        }
+        return needDiscrepancies(id) ? generateUserWithDiscrepancies(id) : generateNormalUser(id);
+    }
+
+    @Override
+    public boolean isOrderedByPrimaryKey() {
+        // additional elements go on with the ids of the main ones
+        return true;
+    }
+
+    @Override
+    public int getSize() {
+        return (percentOfDiscrepancies != 0) ? numberOfUsers + 100 : numberOfUsers;
+    }
+
     private boolean needDiscrepancies(int id) {
         if (percentOfDiscrepancies != 0) {
             return id % (100 * percentOfDiscrepancies) == 0;
@@ -71,10 +87,10 @@ public class UsersGenerator extends AbstractGenerator<User> {
         return User.builder()
                 .intId(id)
                 .longId((long) Integer.MAX_VALUE + id)
-                .username("username-" + id)
-                .password("password-" + id)
-                .birthDate(getLocalDateById(id))
-                .groupName("groupName-" + id)
+                .username(profile.string("username-" + id))
+                .password(profile.string("password-" + id))
+                .birthDate(profile.isNull("birthDate", id) ? null : getLocalDateById(id))
+                .groupName(profile.isNull("groupName", id) ? null : profile.string("groupName-" + id))
                 .build();
     }
 
@@ -82,10 +98,10 @@ public class UsersGenerator extends AbstractGenerator<User> {
         return User.builder()
                 .intId(id)
                 .longId((long) Integer.MAX_VALUE + id + 1)
-                .username("changed-username-" + id)
-                .password("changed-password-" + id)
-                .birthDate(getLocalDateById(id + 1))
-                .groupName("changed-groupName-" + id)
+                .username(profile.string("changed-username-" + id))
+                .password(profile.string("changed-password-" + id))
+                .birthDate(profile.isNull("birthDate", id) ? null : getLocalDateById(id + 1))
+                .groupName(profile.isNull("groupName", id) ? null : profile.string("changed-groupName-" + id))
                 .build();
     }
 }
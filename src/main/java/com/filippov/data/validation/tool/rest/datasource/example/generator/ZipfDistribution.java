@@ -0,0 +1,91 @@
+/*
+ *   Copyright 2018-2020 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.filippov.data.validation.tool.rest.datasource.example.generator;
+
+/**
+ * Zipf distribution over [1, numberOfElements]: the probability of k is proportional to 1 / k^exponent.
+ * Samples are drawn by rejection-inversion (W. Hörmann, G. Derflinger, "Rejection-inversion to generate variates
+ * from monotone discrete distributions"), so neither memory nor time depend on the number of elements.
+ * A sample is a function of a hash, which makes it deterministic.
+ */
+public class ZipfDistribution {
+    private final int numberOfElements;
+    private final double exponent;
+    private final double hIntegralX1;
+    private final double hIntegralNumberOfElements;
+    private final double s;
+
+    public ZipfDistribution(int numberOfElements, double exponent) {
+        if (numberOfElements <= 0 || exponent <= 0) {
+            throw new IllegalArgumentException("Number of elements and exponent must be positive. Number of elements: "
+                    + numberOfElements + ", exponent: " + exponent);
+        }
+        this.numberOfElements = numberOfElements;
+        this.exponent = exponent;
+        this.hIntegralX1 = hIntegral(1.5) - 1;
+        this.hIntegralNumberOfElements = hIntegral(numberOfElements + 0.5);
+        this.s = 2 - hIntegralInverse(hIntegral(2.5) - h(2));
+    }
+
+    public int getNumberOfElements() {
+        return numberOfElements;
+    }
+
+    /**
+     * Returns a sample in [1, numberOfElements]. Rejected attempts continue with the mixed hash.
+     */
+    public int sample(long hash) {
+        long random = hash;
+        while (true) {
+            final double u = hIntegralNumberOfElements + SplitMix64.unit(random) * (hIntegralX1 - hIntegralNumberOfElements);
+            final double x = hIntegralInverse(u);
+            final int k = (int) Math.max(1, Math.min(numberOfElements, (long) (x + 0.5)));
+            if (k - x <= s || u >= hIntegral(k + 0.5) - h(k)) {
+                return k;
+            }
+            random = SplitMix64.mix(random);
+        }
+    }
+
+    private double h(double x) {
+        return Math.exp(-exponent * Math.log(x));
+    }
+
+    private double hIntegral(double x) {
+        final double logX = Math.log(x);
+        return helper2((1 - exponent) * logX) * logX;
+    }
+
+    private double hIntegralInverse(double x) {
+        final double t = Math.max(-1, x * (1 - exponent));
+        return Math.exp(helper1(t) * x);
+    }
+
+    /**
+     * log(1 + x) / x, precise near 0.
+     */
+    private static double helper1(double x) {
+        return (Math.abs(x) > 1e-8) ? Math.log1p(x) / x : 1 - x * (0.5 - x * (1.0 / 3 - 0.25 * x));
+    }
+
+    /**
+     * (exp(x) - 1) / x, precise near 0.
+     */
+    private static double helper2(double x) {
+        return (Math.abs(x) > 1e-8) ? Math.expm1(x) / x : 1 + x * 0.5 * (1 + x * (1.0 / 3) * (1 + 0.25 * x));
+    }
+}
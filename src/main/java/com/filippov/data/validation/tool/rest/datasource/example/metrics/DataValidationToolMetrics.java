@@ -0,0 +1,97 @@
+/*
+ *   Copyright 2018-2020 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.filippov.data.validation.tool.rest.datasource.example.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency and served rows of the data validation tool endpoints. Latency histograms are tagged by table only,
+ * per column latency is a plain timer, so wide tables don't publish histogram buckets for every column.
+ * Meters are registered on the first request for a table or column and reused afterwards.
+ */
+@Component
+@RequiredArgsConstructor
+public class DataValidationToolMetrics {
+    private static final String TABLE = "table";
+    private static final String COLUMN = "column";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> dataTimers = new ConcurrentHashMap<>();
+    private final Map<String, Timer> sizeTimers = new ConcurrentHashMap<>();
+    private final Map<ColumnKey, DataMeters> dataMeters = new ConcurrentHashMap<>();
+    private final Map<ColumnKey, Timer> sizeColumnTimers = new ConcurrentHashMap<>();
+
+    public void recordData(String tableName, String columnName, int rows, long startNanos) {
+        final long nanos = System.nanoTime() - startNanos;
+        dataTimers.computeIfAbsent(tableName, key -> Timer.builder("dvt.data")
+                        .description("Time of building a column data page")
+                        .tags(TABLE, tableName)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry))
+                .record(nanos, TimeUnit.NANOSECONDS);
+        final DataMeters meters = dataMeters.computeIfAbsent(new ColumnKey(tableName, columnName), key -> new DataMeters(
+                Timer.builder("dvt.data.column")
+                        .description("Time of building a column data page per column")
+                        .tags(TABLE, tableName, COLUMN, columnName)
+                        .register(meterRegistry),
+                DistributionSummary.builder("dvt.data.rows")
+                        .description("Rows per column data page")
+                        .tags(TABLE, tableName, COLUMN, columnName)
+                        .register(meterRegistry)));
+        meters.time.record(nanos, TimeUnit.NANOSECONDS);
+        meters.rows.record(rows);
+    }
+
+    public void recordSize(String tableName, String columnName, long startNanos) {
+        final long nanos = System.nanoTime() - startNanos;
+        sizeTimers.computeIfAbsent(tableName, key -> Timer.builder("dvt.size")
+                        .description("Time of a table size request")
+                        .tags(TABLE, tableName)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry))
+                .record(nanos, TimeUnit.NANOSECONDS);
+        sizeColumnTimers.computeIfAbsent(new ColumnKey(tableName, columnName), key -> Timer.builder("dvt.size.column")
+                        .description("Time of a table size request per column")
+                        .tags(TABLE, tableName, COLUMN, columnName)
+                        .register(meterRegistry))
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @ToString
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static final class ColumnKey {
+        private final String tableName;
+        private final String columnName;
+    }
+
+    @RequiredArgsConstructor
+    private static final class DataMeters {
+        private final Timer time;
+        private final DistributionSummary rows;
+    }
+}
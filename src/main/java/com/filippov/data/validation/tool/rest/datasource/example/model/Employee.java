@@ -20,11 +20,13 @@ import lombok.Builder;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.ToString;
+import lombok.extern.jackson.Jacksonized;
 
 @Getter
 @Builder
 @ToString
 @EqualsAndHashCode
+@Jacksonized
 public class Employee {
     private final Integer intId;
     private final Long longId;
@@ -0,0 +1,166 @@
+/*
+ *   Copyright 2018-2020 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.filippov.data.validation.tool.rest.datasource.example.service;
+
+import com.filippov.data.validation.tool.model.DataType;
+import com.filippov.data.validation.tool.rest.datasource.example.storage.Column;
+import com.filippov.data.validation.tool.rest.datasource.example.storage.DoubleValues;
+import com.filippov.data.validation.tool.rest.datasource.example.storage.IntValues;
+import com.filippov.data.validation.tool.rest.datasource.example.storage.KeyIndex;
+import com.filippov.data.validation.tool.rest.datasource.example.storage.LongValues;
+import com.filippov.data.validation.tool.rest.datasource.example.storage.TableStore;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+public abstract class AbstractDataService<T> implements DataService<T>, SmartInitializingSingleton {
+    private final CompletableFuture<TableStore<T>> store;
+    private final Map<String, KeyIndex> keyIndexes = new ConcurrentHashMap<>();
+
+    protected AbstractDataService(CompletableFuture<TableStore<T>> store) {
+        this.store = store;
+    }
+
+    /**
+     * Tables are generated concurrently, so the application waits for all of them only after every service is created.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        store.join();
+    }
+
+    @Override
+    public List<T> getData(Integer offset, Integer limit) {
+        final int from = windowStart(offset, limit);
+        return store().getRows(from, windowEnd(from, limit));
+    }
+
+    @Override
+    public Object[] readColumn(String columnName, Integer offset, Integer limit) {
+        final Column column = store().getColumn(columnName);
+        final int from = windowStart(offset, limit);
+        final Object[] result = new Object[windowEnd(from, limit) - from];
+        column.read(from, result);
+        return result;
+    }
+
+    @Override
+    public List<Object> readPrimitiveColumn(String columnName, DataType dataType, Integer offset, Integer limit) {
+        final Column column = store().getColumn(columnName);
+        final int from = windowStart(offset, limit);
+        final List<Object> values = readPrimitive(column, dataType, from, windowEnd(from, limit) - from);
+        return (values != null) ? values : Arrays.asList(readColumn(columnName, offset, limit));
+    }
+
+    @Override
+    public Object[][] readColumns(List<String> columnNames, Integer offset, Integer limit) {
+        final int from = windowStart(offset, limit);
+        final Object[][] result = new Object[columnNames.size()][windowEnd(from, limit) - from];
+        store().readColumns(columnNames, from, result);
+        return result;
+    }
+
+    /**
+     * Columns of stores which read whole rows are read together and converted to primitives afterwards,
+     * columns of other stores are read into primitive arrays one by one.
+     */
+    @Override
+    public List<List<Object>> readPrimitiveColumns(List<String> columnNames, List<DataType> dataTypes, Integer offset, Integer limit) {
+        final TableStore<T> store = store();
+        final List<List<Object>> result = new ArrayList<>(columnNames.size());
+        if (!store.readsWholeRows()) {
+            for (int i = 0; i < columnNames.size(); i++) {
+                result.add(readPrimitiveColumn(columnNames.get(i), dataTypes.get(i), offset, limit));
+            }
+            return result;
+        }
+
+        final Object[][] columns = readColumns(columnNames, offset, limit);
+        for (int i = 0; i < columns.length; i++) {
+            final Object[] values = columns[i];
+            final List<Object> primitiveValues = readPrimitive(row -> values[row], dataTypes.get(i), 0, values.length);
+            result.add((primitiveValues != null) ? primitiveValues : Arrays.asList(values));
+        }
+        return result;
+    }
+
+    @Override
+    public Object[] readRows(String columnName, int[] rows) {
+        final Object[] result = new Object[rows.length];
+        store().getColumn(columnName).read(rows, result);
+        return result;
+    }
+
+    @Override
+    public KeyIndex getKeyIndex(String keyColumnName) {
+        return keyIndexes.computeIfAbsent(keyColumnName, columnName -> store().getKeyIndex(columnName));
+    }
+
+    @Override
+    public int getSize() {
+        return store().size();
+    }
+
+    /**
+     * Returns null if the type isn't a primitive one or the window has a null.
+     */
+    private static List<Object> readPrimitive(Column column, DataType dataType, int from, int size) {
+        switch (dataType) {
+            case INTEGER:
+                final int[] ints = new int[size];
+                if (column.readInts(from, ints)) {
+                    return new IntValues(ints);
+                }
+                break;
+            case LONG:
+                final long[] longs = new long[size];
+                if (column.readLongs(from, longs)) {
+                    return new LongValues(longs);
+                }
+                break;
+            case DOUBLE:
+                final double[] doubles = new double[size];
+                if (column.readDoubles(from, doubles)) {
+                    return new DoubleValues(doubles);
+                }
+                break;
+            default:
+                break;
+        }
+        return null;
+    }
+
+    private TableStore<T> store() {
+        return store.join();
+    }
+
+    private int windowStart(Integer offset, Integer limit) {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("Offset and limit must not be negative. Offset: " + offset + ", limit: " + limit);
+        }
+        return Math.min(offset, store().size());
+    }
+
+    private int windowEnd(int from, Integer limit) {
+        return from + Math.min(limit, store().size() - from);
+    }
+}
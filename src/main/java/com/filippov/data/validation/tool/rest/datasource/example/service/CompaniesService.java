@@ -16,31 +16,33 @@
 
 package com.filippov.data.validation.tool.rest.datasource.example.service;
 
+import com.filippov.data.validation.tool.rest.datasource.example.dvt.StaticDataValidationToolMetadataProvider;
 import com.filippov.data.validation.tool.rest.datasource.example.generator.CompaniesGenerator;
 import com.filippov.data.validation.tool.rest.datasource.example.model.Company;
+import com.filippov.data.validation.tool.rest.datasource.example.storage.TableStoreFactory;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
-public class CompaniesService implements DataService<Company> {
-    private final List<Company> data;
+public class CompaniesService extends AbstractDataService<Company> {
 
-    public CompaniesService(CompaniesGenerator companiesGenerator) {
-        this.data = companiesGenerator.generate();
-    }
-
-    @Override
-    public List<Company> getData(Integer offset, Integer limit) {
-        return data.stream()
-                .skip(offset)
-                .limit(limit)
-                .collect(Collectors.toList());
-    }
-
-    @Override
-    public int getSize() {
-        return data.size();
+    @SuppressWarnings("unchecked")
+    public CompaniesService(CompaniesGenerator companiesGenerator, TableStoreFactory tableStoreFactory) {
+        super(tableStoreFactory.create(StaticDataValidationToolMetadataProvider.COMPANIES_TABLE, companiesGenerator,
+                (columns, row) -> Company.builder()
+                        .intId((Integer) columns.get("intId").get(row))
+                        .longId((Long) columns.get("longId").get(row))
+                        .active((Boolean) columns.get("active").get(row))
+                        .companyName((String) columns.get("companyName").get(row))
+                        .lastRevenue((Double) columns.get("lastRevenue").get(row))
+                        .country((String) columns.get("country").get(row))
+                        .dateOfCreation((Instant) columns.get("dateOfCreation").get(row))
+                        .foundersFirstNames((String) columns.get("foundersFirstNames").get(row))
+                        .foundersLastNames((String) columns.get("foundersLastNames").get(row))
+                        .categories((List<Integer>) columns.get("categories").get(row))
+                        .competitors((List<String>) columns.get("competitors").get(row))
+                        .build()));
     }
 }
@@ -16,11 +16,52 @@
 
 package com.filippov.data.validation.tool.rest.datasource.example.service;
 
+import com.filippov.data.validation.tool.model.DataType;
+import com.filippov.data.validation.tool.rest.datasource.example.storage.KeyIndex;
+
 import java.util.List;
 
 public interface DataService<T> {
 
+    /**
+     * Returns a read-only view of the rows in [offset, offset + limit) clamped to the table size.
+     * The window is resolved by index, so the cost doesn't depend on the offset.
+     */
     List<T> getData(Integer offset, Integer limit);
 
+    /**
+     * Reads a single column for the same window as {@link #getData(Integer, Integer)} straight from the store
+     * into an array sized to the window, without building row objects.
+     */
+    Object[] readColumn(String columnName, Integer offset, Integer limit);
+
+    /**
+     * Same as {@link #readColumn(String, Integer, Integer)}, but integer, long and double columns without nulls
+     * are returned as lists backed by primitive arrays.
+     */
+    List<Object> readPrimitiveColumn(String columnName, DataType dataType, Integer offset, Integer limit);
+
+    /**
+     * Reads several columns for the same window with a single read of the rows, result[i] has the values of columnNames[i].
+     */
+    Object[][] readColumns(List<String> columnNames, Integer offset, Integer limit);
+
+    /**
+     * Same as {@link #readColumns(List, Integer, Integer)}, but columns are returned as by
+     * {@link #readPrimitiveColumn(String, DataType, Integer, Integer)}, dataTypes[i] is the type of columnNames[i].
+     */
+    List<List<Object>> readPrimitiveColumns(List<String> columnNames, List<DataType> dataTypes, Integer offset, Integer limit);
+
+    /**
+     * Reads a single column for the given rows, in the order of the rows.
+     */
+    Object[] readRows(String columnName, int[] rows);
+
+    /**
+     * Returns the index of an integer key column, it's built on the first call.
+     * Tables in virtual storage mode are searched on demand instead, so they must be ordered by the key.
+     */
+    KeyIndex getKeyIndex(String keyColumnName);
+
     int getSize();
 }
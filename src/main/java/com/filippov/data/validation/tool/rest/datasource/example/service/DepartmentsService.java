@@ -16,31 +16,27 @@
 
 package com.filippov.data.validation.tool.rest.datasource.example.service;
 
+import com.filippov.data.validation.tool.rest.datasource.example.dvt.StaticDataValidationToolMetadataProvider;
 import com.filippov.data.validation.tool.rest.datasource.example.generator.DepartmentsGenerator;
 import com.filippov.data.validation.tool.rest.datasource.example.model.Department;
+import com.filippov.data.validation.tool.rest.datasource.example.model.Employee;
+import com.filippov.data.validation.tool.rest.datasource.example.storage.TableStoreFactory;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
-public class DepartmentsService implements DataService<Department> {
-    private final List<Department> data;
+public class DepartmentsService extends AbstractDataService<Department> {
 
-    public DepartmentsService(DepartmentsGenerator departmentsGenerator) {
-        this.data = departmentsGenerator.generate();
-    }
-
-    @Override
-    public List<Department> getData(Integer offset, Integer limit) {
-        return data.stream()
-                .skip(offset)
-                .limit(limit)
-                .collect(Collectors.toList());
-    }
-
-    @Override
-    public int getSize() {
-        return data.size();
+    @SuppressWarnings("unchecked")
+    public DepartmentsService(DepartmentsGenerator departmentsGenerator, TableStoreFactory tableStoreFactory) {
+        super(tableStoreFactory.create(StaticDataValidationToolMetadataProvider.DEPARTMENTS_TABLE, departmentsGenerator,
+                (columns, row) -> Department.builder()
+                        .intId((Integer) columns.get("intId").get(row))
+                        .longId((Long) columns.get("longId").get(row))
+                        .name((String) columns.get("name").get(row))
+                        .numberOfEmployees((Integer) columns.get("numberOfEmployees").get(row))
+                        .employees((List<Employee>) columns.get("employees").get(row))
+                        .build()));
     }
 }
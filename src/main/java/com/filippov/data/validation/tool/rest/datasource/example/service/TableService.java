@@ -0,0 +1,32 @@
+/*
+ *   Copyright 2018-2020 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.filippov.data.validation.tool.rest.datasource.example.service;
+
+import com.filippov.data.validation.tool.rest.datasource.example.storage.TableStoreFactory;
+import com.filippov.data.validation.tool.rest.datasource.example.table.DeclaredTable;
+
+import java.util.Map;
+
+/**
+ * Serves a table declared in the application properties, there is one instance per declared table.
+ */
+public class TableService extends AbstractDataService<Map<String, Object>> {
+
+    public TableService(DeclaredTable table, TableStoreFactory tableStoreFactory) {
+        super(tableStoreFactory.create(table));
+    }
+}
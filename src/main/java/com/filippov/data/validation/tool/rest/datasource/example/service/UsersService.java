@@ -16,31 +16,26 @@
 
 package com.filippov.data.validation.tool.rest.datasource.example.service;
 
+import com.filippov.data.validation.tool.rest.datasource.example.dvt.StaticDataValidationToolMetadataProvider;
 import com.filippov.data.validation.tool.rest.datasource.example.generator.UsersGenerator;
 import com.filippov.data.validation.tool.rest.datasource.example.model.User;
+import com.filippov.data.validation.tool.rest.datasource.example.storage.TableStoreFactory;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
-import java.util.stream.Collectors;
+import java.time.LocalDate;
 
 @Service
-public class UsersService implements DataService<User> {
-    private final List<User> data;
+public class UsersService extends AbstractDataService<User> {
 
-    public UsersService(UsersGenerator usersGenerator) {
-        this.data = usersGenerator.generate();
+    public UsersService(UsersGenerator usersGenerator, TableStoreFactory tableStoreFactory) {
+        super(tableStoreFactory.create(StaticDataValidationToolMetadataProvider.USERS_TABLE, usersGenerator,
+                (columns, row) -> User.builder()
+                        .intId((Integer) columns.get("intId").get(row))
+                        .longId((Long) columns.get("longId").get(row))
+                        .username((String) columns.get("username").get(row))
+                        .password((String) columns.get("password").get(row))
+                        .birthDate((LocalDate) columns.get("birthDate").get(row))
+                        .groupName((String) columns.get("groupName").get(row))
+                        .build()));
     }
-
-    @Override
-    public List<User> getData(Integer offset, Integer limit) {
-        return data.stream()
-                .skip(offset)
-                .limit(limit)
-                .collect(Collectors.toList());
-    }
-
-    @Override
-    public int getSize() {
-        return data.size();
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,164 @@
+/*
+ *   Copyright 2018-2020 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.filippov.data.validation.tool.rest.datasource.example.storage;
+
+import com.filippov.data.validation.tool.model.DataType;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Column of the binary column format read straight from a buffer region, values are decoded only when requested.
+ * A column has three sections: a bitmap of nulls, fixed-width values (or offsets of variable width values
+ * when {@link #fixedWidth(DataType)} is 0) and bytes of variable width values.
+ */
+public class BinaryColumn implements Column {
+    private final DataType dataType;
+    private final int size;
+    private final ValueCodec codec;
+    private final BufferRegion nulls;
+    private final long nullsOffset;
+    private final BufferRegion fixed;
+    private final long fixedOffset;
+    private final BufferRegion data;
+    private final long dataOffset;
+
+    public BinaryColumn(DataType dataType, int size, ValueCodec codec,
+                        BufferRegion nulls, long nullsOffset,
+                        BufferRegion fixed, long fixedOffset,
+                        BufferRegion data, long dataOffset) {
+        this.dataType = dataType;
+        this.size = size;
+        this.codec = codec;
+        this.nulls = nulls;
+        this.nullsOffset = nullsOffset;
+        this.fixed = fixed;
+        this.fixedOffset = fixedOffset;
+        this.data = data;
+        this.dataOffset = dataOffset;
+    }
+
+    /**
+     * Returns the width of a value stored in the fixed-width section, or 0 for variable width values.
+     */
+    public static int fixedWidth(DataType dataType) {
+        switch (dataType) {
+            case INTEGER:
+                return Integer.BYTES;
+            case LONG:
+            case DOUBLE:
+            case DATE:
+                return Long.BYTES;
+            case BOOLEAN:
+                return 1;
+            case DATE_TIME:
+                return 2 * Long.BYTES;
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * Returns the size of the fixed-width section, variable width columns keep {@code size + 1} offsets there.
+     */
+    public static long fixedSectionSize(DataType dataType, int size) {
+        final int width = fixedWidth(dataType);
+        return (width > 0) ? (long) width * size : (long) Long.BYTES * (size + 1);
+    }
+
+    public static long nullsSectionSize(int size) {
+        return (long) Long.BYTES * ((size + 63) >>> 6);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Object get(int row) {
+        if (isNull(row)) {
+            return null;
+        }
+        final long position = fixedOffset + (long) row * fixedWidth(dataType);
+        switch (dataType) {
+            case INTEGER:
+                return fixed.getInt(position);
+            case LONG:
+                return fixed.getLong(position);
+            case DOUBLE:
+                return fixed.getDouble(position);
+            case BOOLEAN:
+                return fixed.getByte(position) != 0;
+            case DATE:
+                return LocalDate.ofEpochDay(fixed.getLong(position));
+            case DATE_TIME:
+                return Instant.ofEpochSecond(fixed.getLong(position), fixed.getLong(position + Long.BYTES));
+            default:
+                final long offsetPosition = fixedOffset + (long) row * Long.BYTES;
+                final long from = fixed.getLong(offsetPosition);
+                final byte[] bytes = new byte[(int) (fixed.getLong(offsetPosition + Long.BYTES) - from)];
+                data.get(dataOffset + from, bytes);
+                return codec.decode(bytes);
+        }
+    }
+
+    @Override
+    public boolean readInts(int from, int[] target) {
+        if (dataType != DataType.INTEGER || hasNulls(from, target.length)) {
+            return Column.super.readInts(from, target);
+        }
+        for (int i = 0; i < target.length; i++) {
+            target[i] = fixed.getInt(fixedOffset + (long) (from + i) * Integer.BYTES);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean readLongs(int from, long[] target) {
+        if (dataType != DataType.LONG || hasNulls(from, target.length)) {
+            return Column.super.readLongs(from, target);
+        }
+        for (int i = 0; i < target.length; i++) {
+            target[i] = fixed.getLong(fixedOffset + (long) (from + i) * Long.BYTES);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean readDoubles(int from, double[] target) {
+        if (dataType != DataType.DOUBLE || hasNulls(from, target.length)) {
+            return Column.super.readDoubles(from, target);
+        }
+        for (int i = 0; i < target.length; i++) {
+            target[i] = fixed.getDouble(fixedOffset + (long) (from + i) * Long.BYTES);
+        }
+        return true;
+    }
+
+    private boolean isNull(int row) {
+        return (nulls.getLong(nullsOffset + (long) (row >>> 6) * Long.BYTES) & (1L << row)) != 0;
+    }
+
+    private boolean hasNulls(int from, int length) {
+        for (int row = from; row < from + length; row++) {
+            if (isNull(row)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ *   Copyright 2018-2020 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.filippov.data.validation.tool.rest.datasource.example.storage;
+
+import com.filippov.data.validation.tool.model.DataType;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes values of a column one by one into the sections of the binary column format, see {@link BinaryColumn}.
+ * The nulls and fixed-width sections are sized upfront, bytes of variable width values grow chunk by chunk.
+ */
+public class BinaryColumnWriter implements ColumnWriter {
+    private static final int MIN_DATA_CHUNK_SHIFT = 12;
+    private static final int MAX_DATA_CHUNK_SHIFT = 24;
+    private static final int ESTIMATED_VALUE_SIZE = 16;
+
+    private final DataType dataType;
+    private final int size;
+    private final ValueCodec codec;
+    private final boolean direct;
+    private final BufferRegion nulls;
+    private final BufferRegion fixed;
+    private final int width;
+    private final int dataChunkShift;
+    private final List<ByteBuffer> dataChunks = new ArrayList<>();
+    private long dataSize;
+    private int row;
+
+    public BinaryColumnWriter(DataType dataType, int size, ValueCodec codec, boolean direct) {
+        this.dataType = dataType;
+        this.size = size;
+        this.codec = codec;
+        this.direct = direct;
+        this.width = BinaryColumn.fixedWidth(dataType);
+        this.nulls = BufferRegion.allocate(BinaryColumn.nullsSectionSize(size), direct);
+        this.fixed = BufferRegion.allocate(BinaryColumn.fixedSectionSize(dataType, size), direct);
+        final long estimatedDataSize = (width > 0) ? 0 : (long) size * ESTIMATED_VALUE_SIZE;
+        this.dataChunkShift = Math.max(MIN_DATA_CHUNK_SHIFT,
+                Math.min(MAX_DATA_CHUNK_SHIFT, 64 - Long.numberOfLeadingZeros(estimatedDataSize)));
+    }
+
+    @Override
+    public void append(Object value) {
+        if (value == null) {
+            final long position = (long) (row >>> 6) * Long.BYTES;
+            nulls.putLong(position, nulls.getLong(position) | (1L << row));
+        }
+        if (width > 0) {
+            if (value != null) {
+                writeFixed(fixed, (long) row * width, value);
+            }
+        } else {
+            if (value != null) {
+                appendData(codec.encode(value));
+            }
+            fixed.putLong((long) (row + 1) * Long.BYTES, dataSize);
+        }
+        row++;
+    }
+
+    public DataType getDataType() {
+        return dataType;
+    }
+
+    public BufferRegion getNulls() {
+        return nulls;
+    }
+
+    public BufferRegion getFixed() {
+        return fixed;
+    }
+
+    public BufferRegion getData() {
+        return new BufferRegion(dataChunks.toArray(new ByteBuffer[0]), dataChunkShift, dataSize);
+    }
+
+    public long getSizeInBytes() {
+        return nulls.size() + fixed.size() + dataSize;
+    }
+
+    @Override
+    public BinaryColumn toColumn() {
+        if (row != size) {
+            throw new IllegalStateException("Column has " + row + " values of " + size);
+        }
+        return new BinaryColumn(dataType, size, codec, nulls, 0, fixed, 0, getData(), 0);
+    }
+
+    private void writeFixed(BufferRegion region, long position, Object value) {
+        switch (dataType) {
+            case INTEGER:
+                region.putInt(position, (Integer) value);
+                break;
+            case LONG:
+                region.putLong(position, (Long) value);
+                break;
+            case DOUBLE:
+                region.putDouble(position, (Double) value);
+                break;
+            case BOOLEAN:
+                region.putByte(position, (byte) (((Boolean) value) ? 1 : 0));
+                break;
+            case DATE:
+                region.putLong(position, ((LocalDate) value).toEpochDay());
+                break;
+            case DATE_TIME:
+                region.putLong(position, ((Instant) value).getEpochSecond());
+                region.putLong(position + Long.BYTES, ((Instant) value).getNano());
+                break;
+            default:
+                throw new IllegalStateException("Data type: " + dataType + " doesn't have fixed width");
+        }
+    }
+
+    private void appendData(byte[] bytes) {
+        final int chunkSize = 1 << dataChunkShift;
+        int done = 0;
+        while (done < bytes.length) {
+            final int chunkOffset = (int) (dataSize & (chunkSize - 1));
+            if (chunkOffset == 0 && (dataSize >>> dataChunkShift) == dataChunks.size()) {
+                dataChunks.add(direct ? ByteBuffer.allocateDirect(chunkSize) : ByteBuffer.allocate(chunkSize));
+            }
+            final ByteBuffer chunk = dataChunks.get((int) (dataSize >>> dataChunkShift)).duplicate();
+            final int length = Math.min(bytes.length - done, chunkSize - chunkOffset);
+            chunk.position(chunkOffset);
+            chunk.put(bytes, done, length);
+            done += length;
+            dataSize += length;
+        }
+    }
+}
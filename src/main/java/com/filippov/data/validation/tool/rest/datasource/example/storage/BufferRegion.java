@@ -0,0 +1,148 @@
+/*
+ *   Copyright 2018-2020 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.filippov.data.validation.tool.rest.datasource.example.storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Byte region addressed by long positions and backed by a sequence of equally sized byte buffers,
+ * so it isn't limited by the 2GB size of a single buffer. Buffers can be heap, direct or memory-mapped.
+ * Fixed-width values written at positions aligned to their size never cross buffer boundaries.
+ */
+public final class BufferRegion {
+    private static final int MAX_CHUNK_SHIFT = 30;
+
+    private final ByteBuffer[] chunks;
+    private final int chunkShift;
+    private final long chunkMask;
+    private final long size;
+
+    BufferRegion(ByteBuffer[] chunks, int chunkShift, long size) {
+        this.chunks = chunks;
+        this.chunkShift = chunkShift;
+        this.chunkMask = (1L << chunkShift) - 1;
+        this.size = size;
+    }
+
+    public static BufferRegion allocate(long size, boolean direct) {
+        final int chunkShift = Math.min(MAX_CHUNK_SHIFT, Math.max(3, 64 - Long.numberOfLeadingZeros(size - 1)));
+        final long chunkSize = 1L << chunkShift;
+        final ByteBuffer[] chunks = new ByteBuffer[(int) ((size + chunkSize - 1) >>> chunkShift)];
+        for (int i = 0; i < chunks.length; i++) {
+            final int capacity = (int) Math.min(chunkSize, size - (long) i * chunkSize);
+            chunks[i] = direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+        }
+        return new BufferRegion(chunks, chunkShift, size);
+    }
+
+    public static BufferRegion map(FileChannel channel, long position, long size) throws IOException {
+        final long chunkSize = 1L << MAX_CHUNK_SHIFT;
+        final ByteBuffer[] chunks = new ByteBuffer[(int) ((size + chunkSize - 1) >>> MAX_CHUNK_SHIFT)];
+        for (int i = 0; i < chunks.length; i++) {
+            final long offset = (long) i * chunkSize;
+            chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, position + offset, Math.min(chunkSize, size - offset));
+        }
+        return new BufferRegion(chunks, MAX_CHUNK_SHIFT, size);
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public byte getByte(long position) {
+        return chunk(position).get(offset(position));
+    }
+
+    public int getInt(long position) {
+        return chunk(position).getInt(offset(position));
+    }
+
+    public long getLong(long position) {
+        return chunk(position).getLong(offset(position));
+    }
+
+    public double getDouble(long position) {
+        return chunk(position).getDouble(offset(position));
+    }
+
+    public void get(long position, byte[] target) {
+        int done = 0;
+        while (done < target.length) {
+            final long current = position + done;
+            final ByteBuffer chunk = chunk(current).duplicate();
+            final int offset = offset(current);
+            final int length = Math.min(target.length - done, chunk.capacity() - offset);
+            chunk.position(offset);
+            chunk.get(target, done, length);
+            done += length;
+        }
+    }
+
+    public void putByte(long position, byte value) {
+        chunk(position).put(offset(position), value);
+    }
+
+    public void putInt(long position, int value) {
+        chunk(position).putInt(offset(position), value);
+    }
+
+    public void putLong(long position, long value) {
+        chunk(position).putLong(offset(position), value);
+    }
+
+    public void putDouble(long position, double value) {
+        chunk(position).putDouble(offset(position), value);
+    }
+
+    public void put(long position, byte[] source, int from, int length) {
+        int done = 0;
+        while (done < length) {
+            final long current = position + done;
+            final ByteBuffer chunk = chunk(current).duplicate();
+            final int offset = offset(current);
+            final int part = Math.min(length - done, chunk.capacity() - offset);
+            chunk.position(offset);
+            chunk.put(source, from + done, part);
+            done += part;
+        }
+    }
+
+    /**
+     * Writes the first {@code length} bytes of the region to the channel at the given position.
+     */
+    public void writeTo(FileChannel channel, long position, long length) throws IOException {
+        long done = 0;
+        while (done < length) {
+            final ByteBuffer chunk = chunk(done).duplicate();
+            chunk.position(offset(done));
+            chunk.limit((int) Math.min(chunk.capacity(), chunk.position() + length - done));
+            while (chunk.hasRemaining()) {
+                done += channel.write(chunk, position + done);
+            }
+        }
+    }
+
+    private ByteBuffer chunk(long position) {
+        return chunks[(int) (position >>> chunkShift)];
+    }
+
+    private int offset(long position) {
+        return (int) (position & chunkMask);
+    }
+}
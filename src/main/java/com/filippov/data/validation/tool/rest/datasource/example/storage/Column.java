@@ -0,0 +1,83 @@
+/*
+ *   Copyright 2018-2020 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.filippov.data.validation.tool.rest.datasource.example.storage;
+
+public interface Column {
+
+    Object get(int row);
+
+    /**
+     * Copies the values of the rows starting at {@code from} into the whole target array.
+     */
+    default void read(int from, Object[] target) {
+        for (int i = 0; i < target.length; i++) {
+            target[i] = get(from + i);
+        }
+    }
+
+    /**
+     * Copies the values of the given rows into the target array.
+     */
+    default void read(int[] rows, Object[] target) {
+        for (int i = 0; i < rows.length; i++) {
+            target[i] = get(rows[i]);
+        }
+    }
+
+    /**
+     * Copies the values of the rows starting at {@code from} into the whole target array.
+     * Returns false if the column has a value which isn't an integer, e.g. null.
+     */
+    default boolean readInts(int from, int[] target) {
+        for (int i = 0; i < target.length; i++) {
+            final Object value = get(from + i);
+            if (!(value instanceof Integer)) {
+                return false;
+            }
+            target[i] = (Integer) value;
+        }
+        return true;
+    }
+
+    /**
+     * Same as {@link #readInts(int, int[])} for longs.
+     */
+    default boolean readLongs(int from, long[] target) {
+        for (int i = 0; i < target.length; i++) {
+            final Object value = get(from + i);
+            if (!(value instanceof Long)) {
+                return false;
+            }
+            target[i] = (Long) value;
+        }
+        return true;
+    }
+
+    /**
+     * Same as {@link #readInts(int, int[])} for doubles.
+     */
+    default boolean readDoubles(int from, double[] target) {
+        for (int i = 0; i < target.length; i++) {
+            final Object value = get(from + i);
+            if (!(value instanceof Double)) {
+                return false;
+            }
+            target[i] = (Double) value;
+        }
+        return true;
+    }
+}
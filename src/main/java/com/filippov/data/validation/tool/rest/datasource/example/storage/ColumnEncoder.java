@@ -0,0 +1,165 @@
+/*
+ *   Copyright 2018-2020 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.filippov.data.validation.tool.rest.datasource.example.storage;
+
+import com.filippov.data.validation.tool.model.DataType;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+/**
+ * Encodes values appended one by one into a column of primitives for numbers and booleans, and into a dictionary column
+ * for other types. A dictionary is dropped for a plain column of objects as soon as it has too many distinct values to pay off.
+ */
+public final class ColumnEncoder implements ColumnWriter {
+    private static final int MIN_DICTIONARY_SIZE = 256;
+
+    private final DataType dataType;
+    private final int size;
+    private final BitSet nulls = new BitSet();
+    private int[] ints;
+    private long[] longs;
+    private double[] doubles;
+    private BitSet booleans;
+    private int[] codes;
+    private Map<Object, Integer> dictionary;
+    private List<Object> entries;
+    private Object[] objects;
+    private int row;
+
+    public ColumnEncoder(DataType dataType, int size) {
+        this.dataType = dataType;
+        this.size = size;
+        switch (dataType) {
+            case INTEGER:
+                this.ints = new int[size];
+                break;
+            case LONG:
+                this.longs = new long[size];
+                break;
+            case DOUBLE:
+                this.doubles = new double[size];
+                break;
+            case BOOLEAN:
+                this.booleans = new BitSet(size);
+                break;
+            default:
+                this.codes = new int[size];
+                this.dictionary = new HashMap<>();
+                this.entries = new ArrayList<>();
+                break;
+        }
+    }
+
+    public static Column encode(DataType dataType, int size, IntFunction<Object> values) {
+        final ColumnEncoder encoder = new ColumnEncoder(dataType, size);
+        for (int row = 0; row < size; row++) {
+            encoder.append(values.apply(row));
+        }
+        return encoder.toColumn();
+    }
+
+    @Override
+    public void append(Object value) {
+        switch (dataType) {
+            case INTEGER:
+                if (value == null) {
+                    nulls.set(row);
+                } else {
+                    ints[row] = (Integer) value;
+                }
+                break;
+            case LONG:
+                if (value == null) {
+                    nulls.set(row);
+                } else {
+                    longs[row] = (Long) value;
+                }
+                break;
+            case DOUBLE:
+                if (value == null) {
+                    nulls.set(row);
+                } else {
+                    doubles[row] = (Double) value;
+                }
+                break;
+            case BOOLEAN:
+                if (value == null) {
+                    nulls.set(row);
+                } else if ((Boolean) value) {
+                    booleans.set(row);
+                }
+                break;
+            default:
+                appendObject(value);
+                break;
+        }
+        row++;
+    }
+
+    @Override
+    public Column toColumn() {
+        if (row != size) {
+            throw new IllegalStateException("Column has " + row + " values of " + size);
+        }
+        switch (dataType) {
+            case INTEGER:
+                return new IntColumn(ints, nulls);
+            case LONG:
+                return new LongColumn(longs, nulls);
+            case DOUBLE:
+                return new DoubleColumn(doubles, nulls);
+            case BOOLEAN:
+                return new BooleanColumn(booleans, nulls);
+            default:
+                return (objects != null)
+                        ? new ObjectColumn(objects)
+                        : new DictionaryColumn(codes, entries.toArray());
+        }
+    }
+
+    private void appendObject(Object value) {
+        if (objects != null) {
+            objects[row] = value;
+            return;
+        }
+        if (value == null) {
+            codes[row] = -1;
+            return;
+        }
+        final Integer code = dictionary.computeIfAbsent(value, v -> {
+            entries.add(v);
+            return entries.size() - 1;
+        });
+        if (entries.size() > Math.max(MIN_DICTIONARY_SIZE, size / 4)) {
+            objects = new Object[size];
+            for (int i = 0; i < row; i++) {
+                objects[i] = (codes[i] < 0) ? null : entries.get(codes[i]);
+            }
+            objects[row] = value;
+            codes = null;
+            dictionary = null;
+            entries = null;
+            return;
+        }
+        codes[row] = code;
+    }
+}
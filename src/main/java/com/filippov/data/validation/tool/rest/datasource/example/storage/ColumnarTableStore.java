@@ -0,0 +1,49 @@
+/*
+ *   Copyright 2018-2020 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.filippov.data.validation.tool.rest.datasource.example.storage;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+public class ColumnarTableStore<T> implements TableStore<T> {
+    private final int size;
+    private final Map<String, Column> columns;
+    private final RowAssembler<T> rowAssembler;
+
+    public ColumnarTableStore(int size, Map<String, Column> columns, RowAssembler<T> rowAssembler) {
+        this.size = size;
+        this.columns = columns;
+        this.rowAssembler = rowAssembler;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public List<T> getRows(int from, int to) {
+        return new WindowList<>(from, to, row -> rowAssembler.assemble(columns, row));
+    }
+
+    @Override
+    public Column getColumn(String columnName) {
+        return Optional.ofNullable(columns.get(columnName))
+                .orElseThrow(() -> new IllegalArgumentException("Column with name: " + columnName + " wasn't found"));
+    }
+}
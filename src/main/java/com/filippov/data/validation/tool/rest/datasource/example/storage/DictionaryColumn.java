@@ -0,0 +1,44 @@
+/*
+ *   Copyright 2018-2020 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.filippov.data.validation.tool.rest.datasource.example.storage;
+
+/**
+ * Stores every distinct value once and keeps a code per row. Code -1 stands for null.
+ */
+public class DictionaryColumn implements Column {
+    private final int[] codes;
+    private final Object[] dictionary;
+
+    public DictionaryColumn(int[] codes, Object[] dictionary) {
+        this.codes = codes;
+        this.dictionary = dictionary;
+    }
+
+    @Override
+    public Object get(int row) {
+        final int code = codes[row];
+        return (code < 0) ? null : dictionary[code];
+    }
+
+    @Override
+    public void read(int from, Object[] target) {
+        for (int i = 0; i < target.length; i++) {
+            final int code = codes[from + i];
+            target[i] = (code < 0) ? null : dictionary[code];
+        }
+    }
+}
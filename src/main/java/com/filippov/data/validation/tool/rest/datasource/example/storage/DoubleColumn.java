@@ -0,0 +1,54 @@
+/*
+ *   Copyright 2018-2020 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.filippov.data.validation.tool.rest.datasource.example.storage;
+
+import java.util.BitSet;
+
+public class DoubleColumn implements Column {
+    private final double[] values;
+    private final BitSet nulls;
+
+    public DoubleColumn(double[] values, BitSet nulls) {
+        this.values = values;
+        this.nulls = nulls.isEmpty() ? null : nulls;
+    }
+
+    @Override
+    public Object get(int row) {
+        return (nulls != null && nulls.get(row)) ? null : values[row];
+    }
+
+    @Override
+    public void read(int from, Object[] target) {
+        if (nulls != null) {
+            Column.super.read(from, target);
+            return;
+        }
+        for (int i = 0; i < target.length; i++) {
+            target[i] = values[from + i];
+        }
+    }
+
+    @Override
+    public boolean readDoubles(int from, double[] target) {
+        if (nulls != null && !nulls.get(from, from + target.length).isEmpty()) {
+            return false;
+        }
+        System.arraycopy(values, from, target, 0, target.length);
+        return true;
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ *   Copyright 2018-2020 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.filippov.data.validation.tool.rest.datasource.example.storage;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * Read-only list backed by a primitive array. It's written to JSON as a whole array, without boxing the values.
+ */
+@JsonSerialize(using = DoubleValues.Serializer.class)
+public class DoubleValues extends AbstractList<Object> implements RandomAccess {
+    private final double[] values;
+
+    public DoubleValues(double[] values) {
+        this.values = values;
+    }
+
+    public double[] getValues() {
+        return values;
+    }
+
+    @Override
+    public Double get(int index) {
+        return values[index];
+    }
+
+    @Override
+    public int size() {
+        return values.length;
+    }
+
+    public static class Serializer extends PrimitiveValuesSerializer<DoubleValues> {
+
+        public Serializer() {
+            super(DoubleValues.class, (generator, values) -> generator.writeArray(values.values, 0, values.values.length));
+        }
+    }
+}
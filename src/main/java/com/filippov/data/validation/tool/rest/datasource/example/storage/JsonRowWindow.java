@@ -0,0 +1,110 @@
+/*
+ *   Copyright 2018-2020 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.filippov.data.validation.tool.rest.datasource.example.storage;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Read-only list over the rows in [from, to) of a {@link JsonTableStore}, which can also write the rows
+ * straight from their pre-serialized JSON.
+ */
+public class JsonRowWindow<T> extends AbstractList<T> implements RandomAccess {
+    private static final int ARRAY_START = '[';
+    private static final int ARRAY_END = ']';
+    private static final int NEW_LINE = '\n';
+
+    private final JsonTableStore<T> store;
+    private final int from;
+    private final int to;
+    private final List<T> rows;
+
+    JsonRowWindow(JsonTableStore<T> store, int from, int to, List<T> rows) {
+        this.store = store;
+        this.from = from;
+        this.to = to;
+        this.rows = rows;
+    }
+
+    @Override
+    public T get(int index) {
+        return rows.get(index);
+    }
+
+    @Override
+    public int size() {
+        return rows.size();
+    }
+
+    /**
+     * Returns the length of the rows written as a JSON array, encoding the blocks it needs.
+     */
+    public long getJsonArrayLength() {
+        final long[] length = {2};
+        forEachSlice((block, start, end) -> length[0] += end - start);
+        return length[0];
+    }
+
+    /**
+     * Writes the rows as a JSON array with one write per block.
+     */
+    public void writeJsonArray(OutputStream outputStream) throws IOException {
+        outputStream.write(ARRAY_START);
+        forEachSlice((block, start, end) -> outputStream.write(block.bytes, start, end - start));
+        outputStream.write(ARRAY_END);
+    }
+
+    /**
+     * Writes the rows as newline delimited JSON.
+     */
+    public void writeNdjson(OutputStream outputStream) throws IOException {
+        final int blockSize = store.getBlockSize();
+        for (int row = from; row < to; row++) {
+            final JsonTableStore.JsonBlock block = store.getBlock(row / blockSize);
+            final int index = row % blockSize;
+            final int start = block.offsets[index];
+            // the separator after a row is replaced with a new line
+            outputStream.write(block.bytes, start, block.offsets[index + 1] - start - 1);
+            outputStream.write(NEW_LINE);
+        }
+    }
+
+    /**
+     * Passes the comma separated rows of every block in the window, without the separator after the last row.
+     */
+    private <E extends Exception> void forEachSlice(SliceConsumer<E> consumer) throws E {
+        final int blockSize = store.getBlockSize();
+        int row = from;
+        while (row < to) {
+            final int blockIndex = row / blockSize;
+            final int blockStart = blockIndex * blockSize;
+            final int last = Math.min(to, blockStart + blockSize);
+            final JsonTableStore.JsonBlock block = store.getBlock(blockIndex);
+            final int end = block.offsets[last - blockStart];
+            consumer.accept(block, block.offsets[row - blockStart], (last == to) ? end - 1 : end);
+            row = last;
+        }
+    }
+
+    @FunctionalInterface
+    private interface SliceConsumer<E extends Exception> {
+        void accept(JsonTableStore.JsonBlock block, int start, int end) throws E;
+    }
+}
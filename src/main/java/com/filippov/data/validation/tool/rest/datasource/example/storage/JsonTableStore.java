@@ -0,0 +1,127 @@
+/*
+ *   Copyright 2018-2020 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.filippov.data.validation.tool.rest.datasource.example.storage;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * Keeps the rows of another store encoded to JSON in blocks of a fixed number of rows. A block is encoded
+ * on the first request which touches it, so pages are then served by copying byte slices instead of
+ * serializing the same rows again. Tables never change after generation, so blocks are never invalidated,
+ * they are evicted only to keep the encoded bytes within {@code maxSize}.
+ */
+public class JsonTableStore<T> implements TableStore<T> {
+    private static final char SEPARATOR = ',';
+
+    private final TableStore<T> store;
+    private final ObjectWriter writer;
+    private final int blockSize;
+    private final Cache<Integer, JsonBlock> blocks;
+
+    public JsonTableStore(TableStore<T> store, ObjectWriter writer, int blockSize, long maxSize) {
+        if (blockSize <= 0 || maxSize <= 0) {
+            throw new IllegalArgumentException("Block size and max size must be positive. Block size: " + blockSize
+                    + ", max size: " + maxSize);
+        }
+        this.store = store;
+        this.writer = writer;
+        this.blockSize = blockSize;
+        this.blocks = Caffeine.newBuilder()
+                .maximumWeight(maxSize)
+                .weigher((Integer index, JsonBlock block) -> block.bytes.length + block.offsets.length * Integer.BYTES)
+                .build();
+    }
+
+    @Override
+    public int size() {
+        return store.size();
+    }
+
+    @Override
+    public List<T> getRows(int from, int to) {
+        return new JsonRowWindow<>(this, from, to, store.getRows(from, to));
+    }
+
+    @Override
+    public Column getColumn(String columnName) {
+        return store.getColumn(columnName);
+    }
+
+    @Override
+    public KeyIndex getKeyIndex(String keyColumnName) {
+        return store.getKeyIndex(keyColumnName);
+    }
+
+    @Override
+    public void readColumns(List<String> columnNames, int from, Object[][] targets) {
+        store.readColumns(columnNames, from, targets);
+    }
+
+    @Override
+    public boolean readsWholeRows() {
+        return store.readsWholeRows();
+    }
+
+    int getBlockSize() {
+        return blockSize;
+    }
+
+    JsonBlock getBlock(int index) {
+        return blocks.get(index, this::encode);
+    }
+
+    private JsonBlock encode(int index) {
+        final int from = index * blockSize;
+        final List<T> rows = store.getRows(from, Math.min(from + blockSize, store.size()));
+        final int[] offsets = new int[rows.size() + 1];
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (JsonGenerator generator = writer.getFactory().createGenerator(bytes)) {
+            generator.setRootValueSeparator(null);
+            for (int i = 0; i < rows.size(); i++) {
+                writer.writeValue(generator, rows.get(i));
+                generator.writeRaw(SEPARATOR);
+                generator.flush();
+                offsets[i + 1] = bytes.size();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Rows of block: " + index + " can't be encoded to JSON", e);
+        }
+        return new JsonBlock(bytes.toByteArray(), offsets);
+    }
+
+    /**
+     * Row i of a block is stored in [offsets[i], offsets[i + 1]) followed by a comma, which is the last byte of that range.
+     * So the rows of a JSON array are a single slice of a block.
+     */
+    static final class JsonBlock {
+        final byte[] bytes;
+        final int[] offsets;
+
+        private JsonBlock(byte[] bytes, int[] offsets) {
+            this.bytes = bytes;
+            this.offsets = offsets;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ *   Copyright 2018-2020 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.filippov.data.validation.tool.rest.datasource.example.storage;
+
+import java.util.Arrays;
+
+/**
+ * Integer primary key index used by keyset pagination ("rows with key > lastKey, limit N").
+ * When the table is already ordered by the key, positions in the index are the row numbers
+ * and only the keys are kept. Otherwise the index keeps a permutation of rows sorted by key.
+ * Tables which are computed on every read and ordered by the key aren't indexed, their key column is searched instead.
+ */
+public final class KeyIndex {
+    private static final String NOT_INTEGER_KEYS = "Key index can be built only for a column of integers without nulls";
+
+    private final int size;
+    private final int[] keys;
+    private final Column keyColumn;
+    private final int[] rows;
+
+    private KeyIndex(int size, int[] keys, Column keyColumn, int[] rows) {
+        this.size = size;
+        this.keys = keys;
+        this.keyColumn = keyColumn;
+        this.rows = rows;
+    }
+
+    /**
+     * Reads every key of the column, and sorts them with their rows if they aren't ordered by row.
+     */
+    public static KeyIndex build(Column column, int size) {
+        final int[] keys = new int[size];
+        if (!column.readInts(0, keys)) {
+            throw new IllegalStateException(NOT_INTEGER_KEYS);
+        }
+        if (isOrdered(keys)) {
+            return new KeyIndex(size, keys, null, null);
+        }
+
+        // key in the high half and row in the low half, so sorting by key keeps rows with equal keys in table order
+        final long[] pairs = new long[size];
+        for (int row = 0; row < size; row++) {
+            pairs[row] = ((long) keys[row] << 32) | row;
+        }
+        Arrays.sort(pairs);
+        final int[] rows = new int[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = (int) (pairs[i] >> 32);
+            rows[i] = (int) pairs[i];
+        }
+        return new KeyIndex(size, keys, null, rows);
+    }
+
+    /**
+     * Doesn't read the keys upfront: the column is searched on every call, so it must be ordered by row.
+     * A search reads a logarithmic number of keys, which suits columns computed on every read.
+     */
+    public static KeyIndex ordered(Column column, int size) {
+        return new KeyIndex(size, null, column, null);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns true if positions in the index are the row numbers of the table.
+     */
+    public boolean isOrdered() {
+        return rows == null;
+    }
+
+    /**
+     * Returns the position of the first key greater than the given one, or 0 for a null key.
+     */
+    public int positionAfter(Integer lastKey) {
+        if (lastKey == null) {
+            return 0;
+        }
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (key(mid) <= lastKey) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns the end of a page of {@code limit} positions starting at {@code from}. The page is extended over
+     * rows with the same key as its last row, otherwise they'd be skipped by the next "key > lastKey" page.
+     */
+    public int pageEnd(int from, int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Limit must not be negative. Limit: " + limit);
+        }
+        int to = from + Math.min(limit, size - from);
+        while (to > from && to < size && key(to) == key(to - 1)) {
+            to++;
+        }
+        return to;
+    }
+
+    /**
+     * Returns the row numbers of the positions in [from, to).
+     */
+    public int[] rows(int from, int to) {
+        if (rows == null) {
+            final int[] result = new int[to - from];
+            Arrays.setAll(result, i -> from + i);
+            return result;
+        }
+        return Arrays.copyOfRange(rows, from, to);
+    }
+
+    private int key(int position) {
+        if (keys != null) {
+            return keys[position];
+        }
+        final Object key = keyColumn.get(position);
+        if (!(key instanceof Integer)) {
+            throw new IllegalStateException(NOT_INTEGER_KEYS);
+        }
+        return (Integer) key;
+    }
+
+    private static boolean isOrdered(int[] keys) {
+        for (int i = 1; i < keys.length; i++) {
+            if (keys[i] < keys[i - 1]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,35 @@
+/*
+ *   Copyright 2018-2020 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.filippov.data.validation.tool.rest.datasource.example.storage;
+
+public class ObjectColumn implements Column {
+    private final Object[] values;
+
+    public ObjectColumn(Object[] values) {
+        this.values = values;
+    }
+
+    @Override
+    public Object get(int row) {
+        return values[row];
+    }
+
+    @Override
+    public void read(int from, Object[] target) {
+        System.arraycopy(values, from, target, 0, target.length);
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ *   Copyright 2018-2020 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.filippov.data.validation.tool.rest.datasource.example.storage;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Writes a list backed by a primitive array to JSON as a whole array with the writer of its type, without boxing the values.
+ */
+public class PrimitiveValuesSerializer<T> extends StdSerializer<T> {
+    private final ValuesWriter<T> writer;
+
+    protected PrimitiveValuesSerializer(Class<T> type, ValuesWriter<T> writer) {
+        super(type);
+        this.writer = writer;
+    }
+
+    @Override
+    public void serialize(T value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        writer.write(generator, value);
+    }
+
+    @FunctionalInterface
+    protected interface ValuesWriter<T> {
+
+        void write(JsonGenerator generator, T values) throws IOException;
+    }
+}
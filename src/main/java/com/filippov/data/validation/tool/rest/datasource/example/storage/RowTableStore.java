@@ -0,0 +1,88 @@
+/*
+ *   Copyright 2018-2020 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.filippov.data.validation.tool.rest.datasource.example.storage;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+public class RowTableStore<T> implements TableStore<T> {
+    private final List<T> rows;
+    private final Map<String, Function<Object, Object>> extractors;
+
+    public RowTableStore(List<T> rows, Map<String, Function<Object, Object>> extractors) {
+        this.rows = Collections.unmodifiableList(rows);
+        this.extractors = extractors;
+    }
+
+    @Override
+    public int size() {
+        return rows.size();
+    }
+
+    @Override
+    public List<T> getRows(int from, int to) {
+        return rows.subList(from, to);
+    }
+
+    @Override
+    public Column getColumn(String columnName) {
+        final Function<Object, Object> extractor = getExtractor(columnName);
+        return new Column() {
+            @Override
+            public Object get(int row) {
+                return extractor.apply(rows.get(row));
+            }
+
+            @Override
+            public void read(int from, Object[] target) {
+                final List<T> window = rows.subList(from, from + target.length);
+                for (int i = 0; i < target.length; i++) {
+                    target[i] = extractor.apply(window.get(i));
+                }
+            }
+        };
+    }
+
+    @Override
+    public boolean readsWholeRows() {
+        return true;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void readColumns(List<String> columnNames, int from, Object[][] targets) {
+        final Function<Object, Object>[] columnExtractors = new Function[columnNames.size()];
+        for (int i = 0; i < columnExtractors.length; i++) {
+            columnExtractors[i] = getExtractor(columnNames.get(i));
+        }
+        final List<T> window = rows.subList(from, from + ((targets.length > 0) ? targets[0].length : 0));
+        for (int row = 0; row < window.size(); row++) {
+            final T value = window.get(row);
+            for (int i = 0; i < columnExtractors.length; i++) {
+                targets[i][row] = columnExtractors[i].apply(value);
+            }
+        }
+    }
+
+    private Function<Object, Object> getExtractor(String columnName) {
+        return Optional.ofNullable(extractors.get(columnName))
+                .orElseThrow(() -> new IllegalArgumentException("Column with name: " + columnName + " wasn't found"));
+    }
+}
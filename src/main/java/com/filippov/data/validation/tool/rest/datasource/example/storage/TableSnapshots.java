@@ -0,0 +1,190 @@
+/*
+ *   Copyright 2018-2020 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.filippov.data.validation.tool.rest.datasource.example.storage;
+
+import com.filippov.data.validation.tool.model.DataType;
+import com.filippov.data.validation.tool.rest.datasource.example.digest.XxHash64;
+import com.filippov.data.validation.tool.rest.datasource.example.utils.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+/**
+ * Snapshots of generated tables in files of the binary column format. A snapshot is identified by the table name
+ * and a hash of the configuration the table was generated with, so a restart with the same configuration memory-maps
+ * the file instead of generating the table, and a different configuration never reads a stale snapshot.
+ * <p>
+ * File layout: magic, version, configuration hash, number of rows and columns, then for every column its name,
+ * data type and file offsets of its nulls, fixed-width and data sections. Sections follow the header, aligned to 8 bytes.
+ */
+@Slf4j
+public class TableSnapshots {
+    private static final int MAGIC = 0x44565453; // DVTS
+    private static final int VERSION = 1;
+    private static final String EXTENSION = ".dvts";
+
+    private final Path directory;
+    private final long configurationHash;
+
+    public TableSnapshots(Path directory, String configuration) {
+        this.directory = directory;
+        this.configurationHash = XxHash64.hash((VERSION + ":" + configuration).getBytes(StandardCharsets.UTF_8), 0);
+    }
+
+    /**
+     * Returns columns of the table memory-mapped from its snapshot, or null if there's no snapshot of the table
+     * for the current configuration.
+     */
+    public Map<String, Column> load(String tableName, Map<String, BinaryColumnFormat> formats) {
+        final Path file = file(tableName);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        final Timer timer = Timer.start();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final BufferRegion region = BufferRegion.map(channel, 0, channel.size());
+            long position = 0;
+            if (region.getInt(position) != MAGIC || region.getInt(position + 4) != VERSION
+                    || region.getLong(position + 8) != configurationHash) {
+                log.warn("Snapshot: {} doesn't match the current configuration and is ignored", file);
+                return null;
+            }
+            final int size = region.getInt(position + 16);
+            final int columnCount = region.getInt(position + 20);
+            position += 24;
+
+            final Map<String, Column> columns = new HashMap<>();
+            for (int i = 0; i < columnCount; i++) {
+                final byte[] name = new byte[region.getInt(position)];
+                region.get(position + 4, name);
+                position += 4 + name.length;
+                final byte[] dataType = new byte[region.getInt(position)];
+                region.get(position + 4, dataType);
+                position += 4 + dataType.length;
+
+                final String columnName = new String(name, StandardCharsets.UTF_8);
+                final BinaryColumnFormat format = formats.get(columnName);
+                if (format == null || format.getDataType() != DataType.valueOf(new String(dataType, StandardCharsets.UTF_8))) {
+                    log.warn("Snapshot: {} has unexpected column: {} and is ignored", file, columnName);
+                    return null;
+                }
+                columns.put(columnName, new BinaryColumn(format.getDataType(), size, format.getCodec(),
+                        region, region.getLong(position),
+                        region, region.getLong(position + 8),
+                        region, region.getLong(position + 16)));
+                position += 24;
+            }
+            if (!columns.keySet().equals(formats.keySet())) {
+                log.warn("Snapshot: {} doesn't have all columns and is ignored", file);
+                return null;
+            }
+            log.debug("Table: {} has been loaded from snapshot: {}. Execution time: {} ms.", tableName, file, timer.stop());
+            return columns;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Snapshot: " + file + " can't be read and is ignored", e);
+            return null;
+        }
+    }
+
+    /**
+     * Writes a snapshot of the table. Columns are encoded one by one, so only one encoded column is held in memory.
+     * A failure is logged and doesn't stop the application, the table is generated again on the next start.
+     */
+    public void save(String tableName, int size, Map<String, BinaryColumnFormat> formats, Map<String, IntFunction<Object>> values) {
+        final Timer timer = Timer.start();
+        final Path file = file(tableName);
+        final Path temporaryFile = directory.resolve(file.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(directory);
+            try (FileChannel channel = FileChannel.open(temporaryFile, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                final Map<String, long[]> sections = new LinkedHashMap<>();
+                long position = align(headerSize(formats));
+                for (Map.Entry<String, BinaryColumnFormat> entry : formats.entrySet()) {
+                    final BinaryColumnFormat format = entry.getValue();
+                    final BinaryColumnWriter writer = new BinaryColumnWriter(format.getDataType(), size, format.getCodec(), false);
+                    final IntFunction<Object> columnValues = values.get(entry.getKey());
+                    for (int row = 0; row < size; row++) {
+                        writer.append(columnValues.apply(row));
+                    }
+                    final long[] offsets = new long[3];
+                    final BufferRegion[] regions = {writer.getNulls(), writer.getFixed(), writer.getData()};
+                    for (int i = 0; i < regions.length; i++) {
+                        offsets[i] = position;
+                        regions[i].writeTo(channel, position, regions[i].size());
+                        position = align(position + regions[i].size());
+                    }
+                    sections.put(entry.getKey(), offsets);
+                }
+                writeHeader(channel, size, formats, sections);
+                channel.force(true);
+            }
+            Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.debug("Table: {} snapshot has been written to: {}. Execution time: {} ms.", tableName, file, timer.stop());
+        } catch (IOException | RuntimeException e) {
+            log.warn("Snapshot of table: " + tableName + " can't be written to: " + file, e);
+        }
+    }
+
+    private void writeHeader(FileChannel channel, int size, Map<String, BinaryColumnFormat> formats,
+                             Map<String, long[]> sections) throws IOException {
+        final ByteBuffer header = ByteBuffer.allocate(headerSize(formats));
+        header.putInt(MAGIC).putInt(VERSION).putLong(configurationHash).putInt(size).putInt(formats.size());
+        for (Map.Entry<String, BinaryColumnFormat> entry : formats.entrySet()) {
+            final byte[] name = entry.getKey().getBytes(StandardCharsets.UTF_8);
+            final byte[] dataType = entry.getValue().getDataType().name().getBytes(StandardCharsets.UTF_8);
+            header.putInt(name.length).put(name).putInt(dataType.length).put(dataType);
+            for (long offset : sections.get(entry.getKey())) {
+                header.putLong(offset);
+            }
+        }
+        header.flip();
+        long position = 0;
+        while (header.hasRemaining()) {
+            position += channel.write(header, position);
+        }
+    }
+
+    private static int headerSize(Map<String, BinaryColumnFormat> formats) {
+        int size = 24;
+        for (Map.Entry<String, BinaryColumnFormat> entry : formats.entrySet()) {
+            size += 4 + entry.getKey().getBytes(StandardCharsets.UTF_8).length
+                    + 4 + entry.getValue().getDataType().name().getBytes(StandardCharsets.UTF_8).length
+                    + 24;
+        }
+        return size;
+    }
+
+    private static long align(long position) {
+        return (position + 7) & ~7L;
+    }
+
+    private Path file(String tableName) {
+        return directory.resolve(tableName + "-" + Long.toHexString(configurationHash) + EXTENSION);
+    }
+}
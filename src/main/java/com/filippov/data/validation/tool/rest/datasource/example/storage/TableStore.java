@@ -0,0 +1,56 @@
+/*
+ *   Copyright 2018-2020 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.filippov.data.validation.tool.rest.datasource.example.storage;
+
+import java.util.List;
+
+public interface TableStore<T> {
+
+    int size();
+
+    /**
+     * Returns a read-only view of the rows in [from, to).
+     */
+    List<T> getRows(int from, int to);
+
+    Column getColumn(String columnName);
+
+    /**
+     * Returns the index of the primary key column, which must be a column of integers without nulls.
+     */
+    default KeyIndex getKeyIndex(String keyColumnName) {
+        return KeyIndex.build(getColumn(keyColumnName), size());
+    }
+
+    /**
+     * Copies the values of the columns for the rows starting at {@code from}, targets[i] gets the values of columnNames[i]
+     * and all targets have the same length. Stores which keep or generate whole rows read every row once for all the columns.
+     */
+    default void readColumns(List<String> columnNames, int from, Object[][] targets) {
+        for (int i = 0; i < targets.length; i++) {
+            getColumn(columnNames.get(i)).read(from, targets[i]);
+        }
+    }
+
+    /**
+     * Returns true if the store reads whole rows, so several columns are read faster together
+     * by {@link #readColumns(List, int, Object[][])} than column by column.
+     */
+    default boolean readsWholeRows() {
+        return false;
+    }
+}
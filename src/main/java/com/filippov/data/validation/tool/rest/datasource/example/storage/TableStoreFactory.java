@@ -0,0 +1,267 @@
+/*
+ *   Copyright 2018-2020 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.filippov.data.validation.tool.rest.datasource.example.storage;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import com.filippov.data.validation.tool.model.DatasourceColumn;
+import com.filippov.data.validation.tool.model.DatasourceTable;
+import com.filippov.data.validation.tool.rest.datasource.example.config.ApplicationProperties;
+import com.filippov.data.validation.tool.rest.datasource.example.dvt.StaticDataValidationToolMetadataProvider;
+import com.filippov.data.validation.tool.rest.datasource.example.dvt.TableColumns;
+import com.filippov.data.validation.tool.rest.datasource.example.generator.DataGenerator;
+import com.filippov.data.validation.tool.rest.datasource.example.generator.GeneratorProfile;
+import com.filippov.data.validation.tool.rest.datasource.example.generator.GenerationEngine;
+import com.filippov.data.validation.tool.rest.datasource.example.table.DeclaredTable;
+import com.filippov.data.validation.tool.rest.datasource.example.utils.MemoryUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+
+import static java.util.stream.Collectors.toList;
+
+@Slf4j
+@Component
+public class TableStoreFactory {
+    private final StaticDataValidationToolMetadataProvider metadataProvider;
+    private final GenerationEngine generationEngine;
+    private final StorageMode storageMode;
+    private final TableSnapshots snapshots;
+    private final ObjectWriter jsonWriter;
+    private final int jsonBlockSize;
+    private final long jsonCacheSize;
+
+    public TableStoreFactory(StaticDataValidationToolMetadataProvider metadataProvider,
+                             GenerationEngine generationEngine,
+                             ApplicationProperties applicationProperties,
+                             ObjectMapper objectMapper) {
+        this.metadataProvider = metadataProvider;
+        this.generationEngine = generationEngine;
+        this.storageMode = applicationProperties.getStorageMode();
+        this.snapshots = StringUtils.hasText(applicationProperties.getSnapshotPath())
+                ? new TableSnapshots(Paths.get(applicationProperties.getSnapshotPath()), snapshotConfiguration(applicationProperties))
+                : null;
+        this.jsonWriter = objectMapper.writer();
+        this.jsonBlockSize = Optional.ofNullable(applicationProperties.getPreSerializedJsonBlockSize()).orElse(0);
+        this.jsonCacheSize = (jsonBlockSize > 0) ? applicationProperties.getPreSerializedJsonCacheSize().toBytes() : 0;
+        if (log.isDebugEnabled() && !generationEngine.isSequential()
+                && (storageMode == StorageMode.OBJECTS || storageMode == StorageMode.COLUMNAR)) {
+            log.debug("Heap usage per row isn't reported because tables are generated concurrently. "
+                    + "Set generation-parallelism to 1 to report it.");
+        }
+    }
+
+    /**
+     * Starts building the store for the table. Tables are generated concurrently unless the generation engine is sequential.
+     * When snapshots are enabled, a table is memory-mapped from its snapshot if there is one for the current configuration,
+     * otherwise a snapshot is written after generation. Rows are additionally kept as JSON when pre-serialized JSON is enabled.
+     */
+    public <T> CompletableFuture<TableStore<T>> create(DatasourceTable table, DataGenerator<T> generator, RowAssembler<T> rowAssembler) {
+        return preSerialize(createStore(table, generator, rowAssembler));
+    }
+
+    /**
+     * Starts building the store for a table declared in the application properties. Its columns are encoded straight
+     * from the column generators, or computed on every read in {@code virtual} storage mode. Rows are maps of column
+     * names to values. Declared tables aren't written to snapshots.
+     */
+    public CompletableFuture<TableStore<Map<String, Object>>> create(DeclaredTable table) {
+        final List<DatasourceColumn> datasourceColumns = table.getColumns();
+        final RowAssembler<Map<String, Object>> rowAssembler = (columns, row) -> {
+            final Map<String, Object> result = new LinkedHashMap<>();
+            for (DatasourceColumn column : datasourceColumns) {
+                result.put(column.getName(), columns.get(column.getName()).get(row));
+            }
+            return result;
+        };
+
+        final CompletableFuture<List<Column>> columns = (storageMode == StorageMode.VIRTUAL)
+                ? CompletableFuture.completedFuture(IntStream.range(0, datasourceColumns.size())
+                .mapToObj(column -> (Column) row -> table.getValue(column, row))
+                .collect(toList()))
+                : generationEngine.generateColumns(table.getName(), datasourceColumns.size(), column -> ColumnEncoder.encode(
+                datasourceColumns.get(column).getDataType(), table.getSize(), row -> table.getValue(column, row)));
+        final String primaryKey = table.getTable().getPrimaryKey();
+        return preSerialize(columns.thenApply(encodedColumns -> {
+            final Map<String, Column> columnsMap = new HashMap<>();
+            for (int i = 0; i < datasourceColumns.size(); i++) {
+                columnsMap.put(datasourceColumns.get(i).getName(), encodedColumns.get(i));
+            }
+            if (storageMode != StorageMode.VIRTUAL) {
+                return new ColumnarTableStore<>(table.getSize(), columnsMap, rowAssembler);
+            }
+            return new ColumnarTableStore<Map<String, Object>>(table.getSize(), columnsMap, rowAssembler) {
+                // the primary key of a declared table is an integer sequence, so it's searched without computing every key
+                @Override
+                public KeyIndex getKeyIndex(String keyColumnName) {
+                    return keyColumnName.equals(primaryKey)
+                            ? KeyIndex.ordered(getColumn(keyColumnName), size())
+                            : super.getKeyIndex(keyColumnName);
+                }
+            };
+        }));
+    }
+
+    private <T> CompletableFuture<TableStore<T>> preSerialize(CompletableFuture<TableStore<T>> store) {
+        return (jsonBlockSize > 0)
+                ? store.thenApply(rows -> new JsonTableStore<>(rows, jsonWriter, jsonBlockSize, jsonCacheSize))
+                : store;
+    }
+
+    private <T> CompletableFuture<TableStore<T>> createStore(DatasourceTable table, DataGenerator<T> generator, RowAssembler<T> rowAssembler) {
+        if (storageMode == StorageMode.VIRTUAL) {
+            return CompletableFuture.completedFuture(new VirtualTableStore<>(generator, getExtractors(table)));
+        }
+        if (snapshots != null) {
+            final Map<String, Column> columns = snapshots.load(table.getName(), getBinaryFormats(table));
+            if (columns != null) {
+                return CompletableFuture.completedFuture(new ColumnarTableStore<>(generator.getSize(), columns, rowAssembler));
+            }
+        }
+
+        if (storageMode == StorageMode.OBJECTS) {
+            return createRowStore(table, generator);
+        }
+        return createEncodedStore(table, generator, rowAssembler);
+    }
+
+    private <T> CompletableFuture<TableStore<T>> createRowStore(DatasourceTable table, DataGenerator<T> generator) {
+        // heap usage can be attributed to a single table only when tables are generated one after another
+        final boolean reportMemory = log.isDebugEnabled() && generationEngine.isSequential();
+        final long baseline = reportMemory ? MemoryUtils.usedMemory() : 0;
+        return generationEngine.generate(table.getName(), generator)
+                .thenApply(rows -> {
+                    if (reportMemory) {
+                        MemoryUtils.logMemoryPerRow(table.getName() + " (" + storageMode + ")",
+                                MemoryUtils.usedMemory() - baseline, rows.size());
+                    }
+                    if (snapshots != null) {
+                        saveSnapshot(table, rows);
+                    }
+                    return new RowTableStore<>(rows, getExtractors(table));
+                });
+    }
+
+    /**
+     * Rows are encoded into columns batch by batch while they're generated, so the rows never have to fit into the heap
+     * next to the columns. Off-heap columns are written into direct buffers, so they don't have to fit into the heap either.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> CompletableFuture<TableStore<T>> createEncodedStore(DatasourceTable table, DataGenerator<T> generator,
+                                                                    RowAssembler<T> rowAssembler) {
+        final boolean offHeap = (storageMode == StorageMode.OFF_HEAP);
+        final boolean reportMemory = log.isDebugEnabled() && generationEngine.isSequential() && !offHeap;
+        final long baseline = reportMemory ? MemoryUtils.usedMemory() : 0;
+
+        final int size = generator.getSize();
+        final Map<String, BinaryColumnFormat> formats = getBinaryFormats(table);
+        final Map<String, Function<Object, Object>> extractorsMap = getExtractors(table);
+        final String[] columnNames = extractorsMap.keySet().toArray(new String[0]);
+        final Function<Object, Object>[] extractors = new Function[columnNames.length];
+        final ColumnWriter[] writers = new ColumnWriter[columnNames.length];
+        for (int i = 0; i < columnNames.length; i++) {
+            final BinaryColumnFormat format = formats.get(columnNames[i]);
+            extractors[i] = extractorsMap.get(columnNames[i]);
+            writers[i] = offHeap
+                    ? new BinaryColumnWriter(format.getDataType(), size, format.getCodec(), true)
+                    : new ColumnEncoder(format.getDataType(), size);
+        }
+
+        return generationEngine.generate(table.getName(), generator, row -> {
+            for (int i = 0; i < writers.length; i++) {
+                writers[i].append(extractors[i].apply(row));
+            }
+        }).thenApply(ignored -> {
+            final Map<String, Column> columns = new HashMap<>();
+            for (int i = 0; i < columnNames.length; i++) {
+                columns.put(columnNames[i], writers[i].toColumn());
+            }
+            if (offHeap) {
+                long bytes = 0;
+                for (ColumnWriter writer : writers) {
+                    bytes += ((BinaryColumnWriter) writer).getSizeInBytes();
+                }
+                log.debug("Table: {} has been stored off-heap. Size: {} bytes, {} bytes per row.", table.getName(), bytes,
+                        (size > 0) ? bytes / size : 0);
+            }
+            if (reportMemory) {
+                MemoryUtils.logMemoryPerRow(table.getName() + " (" + storageMode + ")", MemoryUtils.usedMemory() - baseline, size);
+            }
+            if (snapshots != null) {
+                final Map<String, IntFunction<Object>> values = new HashMap<>();
+                columns.forEach((columnName, column) -> values.put(columnName, column::get));
+                snapshots.save(table.getName(), size, formats, values);
+            }
+            return new ColumnarTableStore<>(size, columns, rowAssembler);
+        });
+    }
+
+    private <T> void saveSnapshot(DatasourceTable table, List<T> rows) {
+        final Map<String, IntFunction<Object>> values = new HashMap<>();
+        getExtractors(table).forEach((columnName, extractor) -> values.put(columnName, row -> extractor.apply(rows.get(row))));
+        snapshots.save(table.getName(), rows.size(), getBinaryFormats(table), values);
+    }
+
+    private Map<String, BinaryColumnFormat> getBinaryFormats(DatasourceTable table) {
+        final Class<?> modelClass = metadataProvider.getDataType(table.getName());
+        final Map<String, BinaryColumnFormat> formats = new HashMap<>();
+        for (String columnName : table.getColumns()) {
+            final DatasourceColumn column = metadataProvider.getDatasourceColumn(table, columnName);
+            try {
+                final ValueCodec codec = ValueCodec.forType(column.getDataType(),
+                        TypeFactory.defaultInstance().constructType(modelClass.getDeclaredField(columnName).getGenericType()));
+                formats.put(columnName, new BinaryColumnFormat(column.getDataType(), codec));
+            } catch (NoSuchFieldException e) {
+                throw new IllegalStateException("Model: " + modelClass.getName() + " doesn't have field: " + columnName, e);
+            }
+        }
+        return formats;
+    }
+
+    /**
+     * Properties which define the generated data, a snapshot can be reused only if all of them are the same.
+     */
+    private static String snapshotConfiguration(ApplicationProperties properties) {
+        return "numberOfUsers=" + properties.getNumberOfUsers()
+                + ",numberOfDepartments=" + properties.getNumberOfDepartments()
+                + ",numberOfCompanies=" + properties.getNumberOfCompanies()
+                + ",percentOfDiscrepancies=" + properties.getPercentOfDiscrepancies()
+                + ",sizeOfNestedLists=" + properties.getSizeOfNestedLists()
+                + "," + new GeneratorProfile(properties);
+    }
+
+    private Map<String, Function<Object, Object>> getExtractors(DatasourceTable table) {
+        final TableColumns tableColumns = metadataProvider.getTableColumns(table.getName());
+        final Map<String, Function<Object, Object>> extractors = new HashMap<>();
+        for (int i = 0; i < tableColumns.size(); i++) {
+            extractors.put(tableColumns.getColumn(i).getName(), tableColumns.getExtractor(i));
+        }
+        return extractors;
+    }
+}
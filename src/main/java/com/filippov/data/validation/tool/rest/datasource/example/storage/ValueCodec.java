@@ -0,0 +1,88 @@
+/*
+ *   Copyright 2018-2020 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.filippov.data.validation.tool.rest.datasource.example.storage;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.filippov.data.validation.tool.model.DataType;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Encodes values of variable width columns of the binary column format. Strings are stored as UTF-8,
+ * lists and objects as JSON read back into the type of the model field.
+ */
+public interface ValueCodec {
+
+    byte[] encode(Object value);
+
+    Object decode(byte[] bytes);
+
+    static ValueCodec forType(DataType dataType, JavaType javaType) {
+        if (dataType == DataType.STRING) {
+            return StringCodec.INSTANCE;
+        }
+        return new JsonCodec(javaType);
+    }
+
+    final class StringCodec implements ValueCodec {
+        private static final StringCodec INSTANCE = new StringCodec();
+
+        @Override
+        public byte[] encode(Object value) {
+            return ((String) value).getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public Object decode(byte[] bytes) {
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+
+    final class JsonCodec implements ValueCodec {
+        private static final ObjectMapper OBJECT_MAPPER = JsonMapper.builder()
+                .findAndAddModules()
+                .build();
+
+        private final JavaType javaType;
+
+        private JsonCodec(JavaType javaType) {
+            this.javaType = javaType;
+        }
+
+        @Override
+        public byte[] encode(Object value) {
+            try {
+                return OBJECT_MAPPER.writeValueAsBytes(value);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public Object decode(byte[] bytes) {
+            try {
+                return OBJECT_MAPPER.readValue(bytes, javaType);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
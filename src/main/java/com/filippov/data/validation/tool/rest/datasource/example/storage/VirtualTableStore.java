@@ -0,0 +1,130 @@
+/*
+ *   Copyright 2018-2020 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.filippov.data.validation.tool.rest.datasource.example.storage;
+
+import com.filippov.data.validation.tool.rest.datasource.example.generator.DataGenerator;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Doesn't keep any rows: every row is generated from its index when it's read.
+ * The last generated row is shared by the columns, so the columns of a row read one by one generate it only once.
+ */
+public class VirtualTableStore<T> implements TableStore<T> {
+    private final DataGenerator<T> generator;
+    private final int size;
+    private final Map<String, Function<Object, Object>> extractors;
+    private volatile GeneratedRow<T> lastRow;
+
+    public VirtualTableStore(DataGenerator<T> generator, Map<String, Function<Object, Object>> extractors) {
+        this.generator = generator;
+        this.size = generator.getSize();
+        this.extractors = extractors;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public List<T> getRows(int from, int to) {
+        return new WindowList<>(from, to, this::generate);
+    }
+
+    @Override
+    public Column getColumn(String columnName) {
+        final Function<Object, Object> extractor = getExtractor(columnName);
+        return new Column() {
+            @Override
+            public Object get(int row) {
+                return extractor.apply(generate(row));
+            }
+
+            @Override
+            public void read(int from, Object[] target) {
+                for (int i = 0; i < target.length; i++) {
+                    target[i] = extractor.apply(generator.generate(from + i));
+                }
+            }
+        };
+    }
+
+    /**
+     * Keys are searched on demand, an index of all of them would need the whole table to be generated.
+     */
+    @Override
+    public KeyIndex getKeyIndex(String keyColumnName) {
+        if (!generator.isOrderedByPrimaryKey()) {
+            throw new IllegalStateException("Keys of the table aren't ordered by row, so it can't be paged by key"
+                    + " in virtual storage mode without generating the whole table");
+        }
+        return KeyIndex.ordered(getColumn(keyColumnName), size);
+    }
+
+    /**
+     * Generates every row of the window once and takes the values of all the columns from it.
+     */
+    @Override
+    public boolean readsWholeRows() {
+        return true;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void readColumns(List<String> columnNames, int from, Object[][] targets) {
+        final Function<Object, Object>[] columnExtractors = new Function[columnNames.size()];
+        for (int i = 0; i < columnExtractors.length; i++) {
+            columnExtractors[i] = getExtractor(columnNames.get(i));
+        }
+        final int length = (targets.length > 0) ? targets[0].length : 0;
+        for (int row = 0; row < length; row++) {
+            final T value = generator.generate(from + row);
+            for (int i = 0; i < columnExtractors.length; i++) {
+                targets[i][row] = columnExtractors[i].apply(value);
+            }
+        }
+    }
+
+    private Function<Object, Object> getExtractor(String columnName) {
+        return Optional.ofNullable(extractors.get(columnName))
+                .orElseThrow(() -> new IllegalArgumentException("Column with name: " + columnName + " wasn't found"));
+    }
+
+    private T generate(int row) {
+        final GeneratedRow<T> last = lastRow;
+        if (last != null && last.index == row) {
+            return last.value;
+        }
+        final T value = generator.generate(row);
+        lastRow = new GeneratedRow<>(row, value);
+        return value;
+    }
+
+    private static final class GeneratedRow<T> {
+        final int index;
+        final T value;
+
+        private GeneratedRow(int index, T value) {
+            this.index = index;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ *   Copyright 2018-2020 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.filippov.data.validation.tool.rest.datasource.example.storage;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+import java.util.function.IntFunction;
+
+/**
+ * Read-only list over the rows in [from, to) which reads every element only when it's requested.
+ */
+public class WindowList<T> extends AbstractList<T> implements RandomAccess {
+    private final int from;
+    private final int size;
+    private final IntFunction<T> reader;
+
+    public WindowList(int from, int to, IntFunction<T> reader) {
+        this.from = from;
+        this.size = to - from;
+        this.reader = reader;
+    }
+
+    @Override
+    public T get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+        }
+        return reader.apply(from + index);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ *   Copyright 2018-2020 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.filippov.data.validation.tool.rest.datasource.example.table;
+
+import com.filippov.data.validation.tool.model.DataType;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ToString
+public class ColumnDefinition {
+    private String name;
+    private DataType type = DataType.STRING;
+    /**
+     * Number of columns with this definition, more than one column are named name_1 ... name_count.
+     */
+    private Integer count = 1;
+    private ValueDistribution distribution = ValueDistribution.UNIFORM;
+    /**
+     * Bounds of the generated numbers: the first number of a sequence, the inclusive range of uniform values.
+     * Strings, dates and date-times are generated from the numbers.
+     */
+    private Long min = 1L;
+    private Long max = 1000L;
+    /**
+     * Values of the {@link ValueDistribution#VALUES} distribution, they're parsed according to the type of the column.
+     */
+    private List<String> values = new ArrayList<>();
+    private Integer percentOfNulls = 0;
+    private DiscrepancyRule discrepancy = DiscrepancyRule.CHANGE;
+}
@@ -0,0 +1,152 @@
+/*
+ *   Copyright 2018-2020 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.filippov.data.validation.tool.rest.datasource.example.table;
+
+import com.filippov.data.validation.tool.model.DataType;
+import com.filippov.data.validation.tool.rest.datasource.example.generator.SplitMix64;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.function.Function;
+
+/**
+ * Generates the values of a single column. A value depends only on the seed of the column and the row,
+ * so columns can be generated in any order, in parallel or on every read.
+ */
+class ColumnGenerator {
+    private static final LocalDate FIRST_DATE = LocalDate.of(2000, 1, 1);
+    private static final Instant FIRST_DATE_TIME = FIRST_DATE.atStartOfDay().toInstant(ZoneOffset.UTC);
+    private static final int PERCENT = 100;
+
+    private final String name;
+    private final DataType type;
+    private final ValueDistribution distribution;
+    private final long min;
+    private final long max;
+    private final long range;
+    private final Object[] values;
+    private final int percentOfNulls;
+    private final DiscrepancyRule discrepancy;
+    private final long seed;
+
+    ColumnGenerator(String name, ColumnDefinition definition, long seed) {
+        this.name = name;
+        this.type = definition.getType();
+        this.distribution = definition.getDistribution();
+        this.min = definition.getMin();
+        this.max = definition.getMax();
+        this.range = max - min + 1;
+        this.values = definition.getValues().stream().map(parser(type)).toArray();
+        this.percentOfNulls = definition.getPercentOfNulls();
+        this.discrepancy = definition.getDiscrepancy();
+        this.seed = seed;
+
+        if (distribution == ValueDistribution.UNIFORM && range <= 0) {
+            throw new IllegalArgumentException("Column: " + name + " must have min not greater than max. Min: " + min + ", max: " + max);
+        }
+        if (distribution == ValueDistribution.VALUES && values.length == 0) {
+            throw new IllegalArgumentException("Column: " + name + " must have values for the " + distribution + " distribution");
+        }
+        if (percentOfNulls < 0 || percentOfNulls > PERCENT) {
+            throw new IllegalArgumentException("Column: " + name + " must have percent of nulls in [0, 100]. Percent of nulls: " + percentOfNulls);
+        }
+    }
+
+    String getName() {
+        return name;
+    }
+
+    DataType getType() {
+        return type;
+    }
+
+    ValueDistribution getDistribution() {
+        return distribution;
+    }
+
+    long getMin() {
+        return min;
+    }
+
+    int getPercentOfNulls() {
+        return percentOfNulls;
+    }
+
+    Object generate(int row, boolean discrepant) {
+        if (discrepant && discrepancy == DiscrepancyRule.NULL) {
+            return null;
+        }
+        final long hash = SplitMix64.hash(seed, row);
+        if (percentOfNulls > 0 && SplitMix64.bounded(SplitMix64.mix(hash), PERCENT) < percentOfNulls) {
+            return null;
+        }
+
+        final int shift = (discrepant && discrepancy == DiscrepancyRule.CHANGE) ? 1 : 0;
+        switch (distribution) {
+            case SEQUENCE:
+                return fromNumber(min + row + shift);
+            case VALUES:
+                return values[(int) ((SplitMix64.bounded(hash, values.length) + shift) % values.length)];
+            default:
+                if (type == DataType.DOUBLE) {
+                    return min + SplitMix64.unit(hash) * (max - min) + shift;
+                }
+                return fromNumber(min + (SplitMix64.bounded(hash, range) + shift) % range);
+        }
+    }
+
+    private Object fromNumber(long number) {
+        switch (type) {
+            case INTEGER:
+                return (int) number;
+            case LONG:
+                return number;
+            case DOUBLE:
+                return (double) number;
+            case BOOLEAN:
+                return number % 2 == 0;
+            case DATE:
+                return FIRST_DATE.plusDays(number);
+            case DATE_TIME:
+                return FIRST_DATE_TIME.plusSeconds(number);
+            default:
+                return name + "-" + number;
+        }
+    }
+
+    private static Function<String, Object> parser(DataType type) {
+        switch (type) {
+            case STRING:
+                return value -> value;
+            case INTEGER:
+                return Integer::valueOf;
+            case LONG:
+                return Long::valueOf;
+            case DOUBLE:
+                return Double::valueOf;
+            case BOOLEAN:
+                return Boolean::valueOf;
+            case DATE:
+                return LocalDate::parse;
+            case DATE_TIME:
+                return Instant::parse;
+            default:
+                throw new IllegalArgumentException("Columns of type: " + type + " aren't supported by declared tables");
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ *   Copyright 2018-2020 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.filippov.data.validation.tool.rest.datasource.example.table;
+
+import com.filippov.data.validation.tool.model.DataType;
+import com.filippov.data.validation.tool.model.DatasourceColumn;
+import com.filippov.data.validation.tool.model.DatasourceTable;
+import com.filippov.data.validation.tool.rest.datasource.example.generator.SplitMix64;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * A table built from a {@link TableDefinition}: its metadata and a generator for every column.
+ */
+public class DeclaredTable {
+    private static final int PERCENT = 100;
+
+    @Getter
+    private final DatasourceTable table;
+    @Getter
+    private final List<DatasourceColumn> columns = new ArrayList<>();
+    @Getter
+    private final int size;
+    private final List<ColumnGenerator> generators = new ArrayList<>();
+    private final Map<String, Integer> indexes = new HashMap<>();
+    private final int percentOfDiscrepancies;
+    private final long discrepancySeed;
+    private final int keyIndex;
+
+    public DeclaredTable(TableDefinition definition) {
+        final String tableName = definition.getName();
+        if (tableName == null || tableName.isBlank() || definition.getColumns().isEmpty()) {
+            throw new IllegalArgumentException("Declared table must have a name and columns. Table: " + definition);
+        }
+        this.size = definition.getNumberOfRows();
+        this.percentOfDiscrepancies = definition.getPercentOfDiscrepancies();
+        this.discrepancySeed = SplitMix64.mix(~definition.getSeed());
+        if (size < 0 || percentOfDiscrepancies < 0 || percentOfDiscrepancies > PERCENT) {
+            throw new IllegalArgumentException("Table: " + tableName + " must have a non-negative number of rows and percent of discrepancies in [0, 100]."
+                    + " Number of rows: " + size + ", percent of discrepancies: " + percentOfDiscrepancies);
+        }
+
+        for (ColumnDefinition columnDefinition : definition.getColumns()) {
+            if (columnDefinition.getName() == null || columnDefinition.getName().isBlank()) {
+                throw new IllegalArgumentException("Every column of table: " + tableName + " must have a name. Column: " + columnDefinition);
+            }
+            for (int i = 1; i <= columnDefinition.getCount(); i++) {
+                final String columnName = (columnDefinition.getCount() > 1) ? columnDefinition.getName() + "_" + i : columnDefinition.getName();
+                if (indexes.putIfAbsent(columnName, generators.size()) != null) {
+                    throw new IllegalArgumentException("Column: " + columnName + " is declared more than once in table: " + tableName);
+                }
+                // seeded by the name, so adding, removing or moving a column doesn't change the values of the others
+                generators.add(new ColumnGenerator(columnName, columnDefinition, SplitMix64.hash(definition.getSeed(), columnName.hashCode())));
+                columns.add(DatasourceColumn.builder()
+                        .tableName(tableName)
+                        .name(columnName)
+                        .dataType(columnDefinition.getType())
+                        .build());
+            }
+        }
+
+        final String primaryKey = Optional.ofNullable(definition.getPrimaryKey()).orElse(generators.get(0).getName());
+        final ColumnGenerator keyGenerator = Optional.ofNullable(indexes.get(primaryKey))
+                .map(generators::get)
+                .orElseThrow(() -> new IllegalArgumentException("Primary key: " + primaryKey + " wasn't found in table: " + tableName));
+        if (keyGenerator.getType() != DataType.INTEGER || keyGenerator.getDistribution() != ValueDistribution.SEQUENCE
+                || keyGenerator.getPercentOfNulls() > 0 || keyGenerator.getMin() + size - 1 > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Primary key: " + primaryKey + " of table: " + tableName
+                    + " must be an integer sequence without nulls which fits into an integer");
+        }
+        this.keyIndex = indexes.get(primaryKey);
+
+        this.table = DatasourceTable.builder()
+                .name(tableName)
+                .primaryKey(primaryKey)
+                .columns(columns.stream().map(DatasourceColumn::getName).collect(toList()))
+                .build();
+    }
+
+    public String getName() {
+        return table.getName();
+    }
+
+    public DatasourceColumn getColumn(String columnName) {
+        return Optional.ofNullable(indexes.get(columnName))
+                .map(columns::get)
+                .orElseThrow(() -> new IllegalArgumentException("Column with name: "
+                        + columnName + " wasn't found for table: " + table.getName()));
+    }
+
+    public Object getValue(int column, int row) {
+        // keys are never changed, otherwise rows of two datasources couldn't be matched
+        return generators.get(column).generate(row, column != keyIndex && isDiscrepant(row));
+    }
+
+    private boolean isDiscrepant(int row) {
+        return percentOfDiscrepancies > 0 && SplitMix64.bounded(SplitMix64.hash(discrepancySeed, row), PERCENT) < percentOfDiscrepancies;
+    }
+}
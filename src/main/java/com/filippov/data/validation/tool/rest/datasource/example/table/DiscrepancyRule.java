@@ -0,0 +1,35 @@
+/*
+ *   Copyright 2018-2020 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.filippov.data.validation.tool.rest.datasource.example.table;
+
+/**
+ * What happens to a column value in a row picked for discrepancies.
+ */
+public enum DiscrepancyRule {
+    /**
+     * The value is replaced with the next value of the distribution.
+     */
+    CHANGE,
+    /**
+     * The value is replaced with null.
+     */
+    NULL,
+    /**
+     * The value stays the same.
+     */
+    NONE
+}
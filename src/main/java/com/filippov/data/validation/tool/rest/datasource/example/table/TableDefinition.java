@@ -0,0 +1,49 @@
+/*
+ *   Copyright 2018-2020 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.filippov.data.validation.tool.rest.datasource.example.table;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A table declared in the application properties. Its rows are generated column by column from the column definitions,
+ * so no model class, generator or service has to be written for it.
+ */
+@Getter
+@Setter
+@ToString
+public class TableDefinition {
+    private String name;
+    /**
+     * The first column by default, it must be an integer column.
+     */
+    private String primaryKey;
+    private Integer numberOfRows = 1000;
+    /**
+     * Percent of rows in which columns are changed according to their discrepancy rules, rows are picked by their hash.
+     */
+    private Integer percentOfDiscrepancies = 0;
+    /**
+     * Datasources with the same seed generate the same values.
+     */
+    private Long seed = 0L;
+    private List<ColumnDefinition> columns = new ArrayList<>();
+}
@@ -0,0 +1,32 @@
+/*
+ *   Copyright 2018-2020 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.filippov.data.validation.tool.rest.datasource.example.table;
+
+public enum ValueDistribution {
+    /**
+     * min + row, unique and ordered values which can be used as a primary key.
+     */
+    SEQUENCE,
+    /**
+     * Uniformly distributed numbers in [min, max].
+     */
+    UNIFORM,
+    /**
+     * Uniformly distributed values of the given list.
+     */
+    VALUES
+}
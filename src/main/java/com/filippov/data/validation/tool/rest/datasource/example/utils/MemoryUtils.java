@@ -40,4 +40,19 @@ public class MemoryUtils {
         log.debug("Total free memory: " + format.format((freeMemory + (maxMemory - allocatedMemory)) / mb) + mega);
         log.debug("=================================================================");
     }
+
+    /**
+     * Doesn't force a garbage collection, so garbage which hasn't been collected yet is counted too
+     * and the result is only an upper bound of the live heap.
+     */
+    public static long usedMemory() {
+        final Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    public static void logMemoryPerRow(String name, long usedMemory, int rows) {
+        final NumberFormat format = NumberFormat.getInstance();
+        log.debug("Heap used by {}: {} KB, {} bytes per row", name,
+                format.format(usedMemory / 1024), format.format(rows == 0 ? 0 : usedMemory / rows));
+    }
 }
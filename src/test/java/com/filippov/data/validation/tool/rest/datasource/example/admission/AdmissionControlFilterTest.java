@@ -0,0 +1,138 @@
+/*
+ *   Copyright 2018-2020 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.filippov.data.validation.tool.rest.datasource.example.admission;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+@SpringBootTest(properties = {
+        "application.max-response-size=64KB",
+        "application.max-in-flight-response-size=100KB"})
+class AdmissionControlFilterTest {
+
+    @Autowired
+    private AdmissionControlFilter filter;
+
+    @Test
+    void smallWindowIsPassedAsItIs() throws Exception {
+        final AtomicReference<HttpServletRequest> admitted = new AtomicReference<>();
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(dataRequest("name", 0, 10), response, (request, ignored) -> admitted.set((HttpServletRequest) request));
+
+        assertEquals("10", admitted.get().getParameter("limit"));
+        assertNull(response.getHeader(AdmissionControlFilter.NEXT_OFFSET_HEADER));
+    }
+
+    @Test
+    void bigWindowOfRowsIsTruncatedWithNextOffset() throws Exception {
+        final AtomicReference<HttpServletRequest> admitted = new AtomicReference<>();
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(rowsRequest(10, 100), response, (request, ignored) -> admitted.set((HttpServletRequest) request));
+
+        final int limit = Integer.parseInt(admitted.get().getParameter("pageSize"));
+        assertTrue(limit > 0 && limit < 100);
+        assertEquals(String.valueOf(10 + limit), response.getHeader(AdmissionControlFilter.NEXT_OFFSET_HEADER));
+    }
+
+    @Test
+    void bigWindowOfDataValidationToolIsRejectedInsteadOfTruncated() throws Exception {
+        final MockHttpServletRequest after = dataRequest("employees", 0, 100);
+        after.setServletPath("/data/after");
+        after.removeParameter("offset");
+        final MockHttpServletRequest batch = dataRequest("employees", 0, 100);
+        batch.setServletPath("/data/batch");
+        batch.removeParameter("columnName");
+        batch.setParameter("columnNames", "name,employees");
+
+        for (MockHttpServletRequest dataRequest : List.of(dataRequest("employees", 10, 100), after, batch)) {
+            final MockHttpServletResponse response = new MockHttpServletResponse();
+
+            filter.doFilter(dataRequest, response, (request, ignored) -> fail("Request to " + dataRequest.getServletPath() + " was admitted"));
+
+            assertEquals(HttpStatus.PAYLOAD_TOO_LARGE.value(), response.getStatus());
+            assertTrue(response.getErrorMessage().contains("request at most"), response.getErrorMessage());
+            assertNull(response.getHeader(AdmissionControlFilter.NEXT_OFFSET_HEADER));
+        }
+    }
+
+    @Test
+    void requestIsRejectedWhileOthersAreInFlightAndBytesAreReleased() throws Exception {
+        final long availableBytes = filter.getAvailableBytes();
+        final MockHttpServletResponse rejectedResponse = new MockHttpServletResponse();
+
+        filter.doFilter(rowsRequest(0, 100), new MockHttpServletResponse(),
+                (request, response) -> filter.doFilter(rowsRequest(0, 100), rejectedResponse, (r, s) -> {
+                }));
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), rejectedResponse.getStatus());
+        assertEquals("1", rejectedResponse.getHeader(HttpHeaders.RETRY_AFTER));
+        assertEquals(availableBytes, filter.getAvailableBytes());
+    }
+
+    @Test
+    void digestsAreCountedInFlight() throws Exception {
+        final long availableBytes = filter.getAvailableBytes();
+        final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/digest");
+        request.setServletPath("/digest");
+        request.setParameter("tableName", "departments");
+        request.setParameter("columnName", "name");
+        request.setParameter("bucketSize", "1");
+        request.setParameter("level", "0");
+        final AtomicReference<Long> inFlightBytes = new AtomicReference<>();
+
+        filter.doFilter(request, new MockHttpServletResponse(),
+                (admitted, response) -> inFlightBytes.set(availableBytes - filter.getAvailableBytes()));
+
+        // a digest of every row
+        assertTrue(inFlightBytes.get() > 100 * 50, "In flight bytes: " + inFlightBytes.get());
+        assertEquals(availableBytes, filter.getAvailableBytes());
+    }
+
+    private static MockHttpServletRequest dataRequest(String columnName, int offset, int limit) {
+        final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/data");
+        request.setServletPath("/data");
+        request.setParameter("tableName", "departments");
+        request.setParameter("columnName", columnName);
+        request.setParameter("offset", String.valueOf(offset));
+        request.setParameter("limit", String.valueOf(limit));
+        return request;
+    }
+
+    private static MockHttpServletRequest rowsRequest(int page, int pageSize) {
+        final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/departments");
+        request.setServletPath("/departments");
+        request.setParameter("page", String.valueOf(page));
+        request.setParameter("pageSize", String.valueOf(pageSize));
+        return request;
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ *   Copyright 2018-2020 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.filippov.data.validation.tool.rest.datasource.example.cache;
+
+import com.filippov.data.validation.tool.model.ColumnData;
+import com.filippov.data.validation.tool.model.DataType;
+import com.filippov.data.validation.tool.model.DatasourceColumn;
+import com.filippov.data.validation.tool.rest.datasource.example.config.ApplicationProperties;
+import com.filippov.data.validation.tool.rest.datasource.example.storage.IntValues;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ColumnDataCacheTest {
+    private static final int PAGE_SIZE = 1000;
+
+    private final AtomicInteger builtPages = new AtomicInteger();
+
+    @Test
+    void pageIsBuiltOncePerWindow() {
+        final ColumnDataCache cache = new ColumnDataCache(properties(DataSize.ofMegabytes(1)));
+
+        final ColumnData page = cache.get("users", "intId", 0, PAGE_SIZE, () -> page(0));
+        assertSame(page, cache.get("users", "intId", 0, PAGE_SIZE, () -> page(0)));
+        cache.get("users", "intId", PAGE_SIZE, PAGE_SIZE, () -> page(PAGE_SIZE));
+        cache.get("users", "longId", 0, PAGE_SIZE, () -> page(0));
+
+        assertEquals(3, builtPages.get());
+        assertEquals(1, cache.getCache().stats().hitCount());
+    }
+
+    @Test
+    void pagesAreEvictedToStayWithinTheSize() {
+        final DataSize maxSize = DataSize.ofKilobytes(64);
+        final ColumnDataCache cache = new ColumnDataCache(properties(maxSize));
+
+        for (int i = 0; i < 100; i++) {
+            cache.get("users", "intId", i * PAGE_SIZE, PAGE_SIZE, () -> page(0));
+        }
+        cache.getCache().cleanUp();
+
+        assertEquals(100, builtPages.get());
+        assertTrue(cache.getCache().policy().eviction().orElseThrow().weightedSize().orElseThrow() <= maxSize.toBytes());
+        assertTrue(cache.getCache().stats().evictionCount() > 0);
+    }
+
+    @Test
+    void pagesAreAlwaysBuiltWhenTheCacheIsDisabled() {
+        final ColumnDataCache cache = new ColumnDataCache(properties(DataSize.ofMegabytes(0)));
+
+        cache.get("users", "intId", 0, PAGE_SIZE, () -> page(0));
+        cache.get("users", "intId", 0, PAGE_SIZE, () -> page(0));
+
+        assertNull(cache.getCache());
+        assertEquals(2, builtPages.get());
+    }
+
+    private ColumnData page(int offset) {
+        builtPages.incrementAndGet();
+        final DatasourceColumn column = DatasourceColumn.builder().tableName("users").name("intId").dataType(DataType.INTEGER).build();
+        final IntValues keys = new IntValues(IntStream.range(offset, offset + PAGE_SIZE).toArray());
+        return ColumnData.builder()
+                .keyColumn(column)
+                .dataColumn(column)
+                .keys(keys)
+                .values(keys)
+                .build();
+    }
+
+    private static ApplicationProperties properties(DataSize columnDataCacheSize) {
+        final ApplicationProperties properties = new ApplicationProperties();
+        properties.setColumnDataCacheSize(columnDataCacheSize);
+        return properties;
+    }
+}
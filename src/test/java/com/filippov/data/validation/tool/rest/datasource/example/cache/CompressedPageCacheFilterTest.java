@@ -0,0 +1,159 @@
+/*
+ *   Copyright 2018-2020 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.filippov.data.validation.tool.rest.datasource.example.cache;
+
+import com.filippov.data.validation.tool.rest.datasource.example.config.ApplicationProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+
+import javax.servlet.FilterChain;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompressedPageCacheFilterTest {
+    private static final byte[] BODY = "{\"keys\":[1,2,3],\"values\":[\"a\",\"b\",\"c\"]}".repeat(100).getBytes(StandardCharsets.UTF_8);
+
+    private final CompressedPageCacheFilter filter = new CompressedPageCacheFilter(properties());
+    private final AtomicInteger generatedPages = new AtomicInteger();
+    private final FilterChain chain = (request, response) -> {
+        generatedPages.incrementAndGet();
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getOutputStream().write(BODY);
+    };
+
+    @Test
+    void gzipPageIsCompressedOnceAndServedFromCache() throws Exception {
+        final MockHttpServletResponse first = perform("gzip, deflate");
+        final MockHttpServletResponse second = perform("gzip");
+
+        assertEquals(1, generatedPages.get());
+        for (MockHttpServletResponse response : new MockHttpServletResponse[]{first, second}) {
+            assertEquals("gzip", response.getHeader(HttpHeaders.CONTENT_ENCODING));
+            assertEquals("Accept, Accept-Encoding", response.getHeader(HttpHeaders.VARY));
+            assertEquals(MediaType.APPLICATION_JSON_VALUE, response.getContentType());
+            assertArrayEquals(BODY, decompress(new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))));
+        }
+    }
+
+    @Test
+    void deflatePageIsCachedSeparatelyFromGzip() throws Exception {
+        perform("gzip");
+        final MockHttpServletResponse first = perform("deflate");
+        final MockHttpServletResponse second = perform("gzip;q=0.5, deflate");
+
+        assertEquals(2, generatedPages.get());
+        for (MockHttpServletResponse response : new MockHttpServletResponse[]{first, second}) {
+            assertEquals("deflate", response.getHeader(HttpHeaders.CONTENT_ENCODING));
+            assertEquals("Accept, Accept-Encoding", response.getHeader(HttpHeaders.VARY));
+            assertArrayEquals(BODY, decompress(new InflaterInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))));
+        }
+    }
+
+    @Test
+    void concurrentRequestsWaitForThePageBeingBuilt() throws Exception {
+        final CyclicBarrier barrier = new CyclicBarrier(8);
+        final FilterChain slowChain = (request, response) -> {
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            chain.doFilter(request, response);
+        };
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<MockHttpServletResponse>> responses = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                responses.add(executor.submit(() -> {
+                    barrier.await();
+                    return perform("gzip", slowChain);
+                }));
+            }
+            for (Future<MockHttpServletResponse> response : responses) {
+                assertArrayEquals(BODY, decompress(new GZIPInputStream(new ByteArrayInputStream(response.get().getContentAsByteArray()))));
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(1, generatedPages.get());
+    }
+
+    @Test
+    void pageIsPassedThroughWhenCompressionIsNotAccepted() throws Exception {
+        for (String acceptEncoding : new String[]{null, "identity", "gzip;q=0", "br"}) {
+            final MockHttpServletResponse response = perform(acceptEncoding);
+
+            assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+            assertArrayEquals(BODY, response.getContentAsByteArray());
+        }
+        assertEquals(4, generatedPages.get());
+        assertTrue(filter.getCache().asMap().isEmpty());
+    }
+
+    private MockHttpServletResponse perform(String acceptEncoding) throws Exception {
+        return perform(acceptEncoding, chain);
+    }
+
+    private MockHttpServletResponse perform(String acceptEncoding, FilterChain chain) throws Exception {
+        final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/data");
+        request.setServletPath("/data");
+        request.setParameter("tableName", "users");
+        request.setParameter("columnName", "username");
+        request.setParameter("offset", "0");
+        request.setParameter("limit", "100");
+        if (acceptEncoding != null) {
+            request.addHeader(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        }
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private static byte[] decompress(InputStream inputStream) throws IOException {
+        try (InputStream decompressed = inputStream) {
+            return decompressed.readAllBytes();
+        }
+    }
+
+    private static ApplicationProperties properties() {
+        final ApplicationProperties properties = new ApplicationProperties();
+        properties.setCompressedPageCacheSize(DataSize.ofMegabytes(1));
+        properties.setCompressedPageCacheMinResponseSize(DataSize.ofKilobytes(2));
+        properties.setCompressedPageCachePath("/data");
+        return properties;
+    }
+}
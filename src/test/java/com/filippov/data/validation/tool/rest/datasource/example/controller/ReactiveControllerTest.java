@@ -0,0 +1,85 @@
+/*
+ *   Copyright 2018-2020 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.filippov.data.validation.tool.rest.datasource.example.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.filippov.data.validation.tool.rest.datasource.example.model.User;
+import com.filippov.data.validation.tool.rest.datasource.example.service.UsersService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ReactiveControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UsersService usersService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void rowsAreStreamedAsNewLineDelimitedJson() throws Exception {
+        final MockHttpServletResponse response = stream("/reactive/users", 10, 5);
+        final String body = response.getContentAsString();
+        final List<User> expected = usersService.getData(10, 5);
+
+        assertTrue(MediaType.APPLICATION_NDJSON.isCompatibleWith(MediaType.parseMediaType(response.getContentType())));
+        assertTrue(body.endsWith("\n"));
+        final String[] lines = body.split("\n");
+        assertEquals(expected.size(), lines.length);
+        for (int i = 0; i < lines.length; i++) {
+            assertEquals(objectMapper.valueToTree(expected.get(i)), objectMapper.readTree(lines[i]));
+        }
+    }
+
+    @Test
+    void emptyWindowIsStreamedAsEmptyBody() throws Exception {
+        assertEquals("", stream("/reactive/users", usersService.getSize(), 5).getContentAsString());
+    }
+
+    private MockHttpServletResponse stream(String path, int page, int pageSize) throws Exception {
+        final MvcResult result = mockMvc.perform(get(path)
+                        .param("page", String.valueOf(page))
+                        .param("pageSize", String.valueOf(pageSize))
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse();
+    }
+}
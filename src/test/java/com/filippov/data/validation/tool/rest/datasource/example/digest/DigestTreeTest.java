@@ -0,0 +1,177 @@
+/*
+ *   Copyright 2018-2020 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.filippov.data.validation.tool.rest.datasource.example.digest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.filippov.data.validation.tool.model.DataType;
+import com.filippov.data.validation.tool.rest.datasource.example.service.DataService;
+import com.filippov.data.validation.tool.rest.datasource.example.storage.KeyIndex;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DigestTreeTest {
+    private static final int SIZE = 1000;
+    private static final int BUCKET_SIZE = 10;
+    private static final int CHANGED_ROW = 537;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void changedRowChangesItsLeafAndAncestorsOnly() {
+        final Object[] values = values();
+        final DigestTree expected = new DigestTree(new ArrayDataService(values), "id", "value", objectMapper, BUCKET_SIZE);
+        values[CHANGED_ROW] = "changed";
+        final DigestTree actual = new DigestTree(new ArrayDataService(values), "id", "value", objectMapper, BUCKET_SIZE);
+
+        assertEquals(8, actual.getLevels());
+        assertEquals(1, actual.getNodeCount(actual.getLevels() - 1));
+        final int changedBucket = CHANGED_ROW / BUCKET_SIZE;
+        for (int level = 0; level < actual.getLevels(); level++) {
+            for (int index = 0; index < actual.getNodeCount(level); index++) {
+                if (index == changedBucket >> level) {
+                    assertNotEquals(expected.getDigest(level, index), actual.getDigest(level, index),
+                            "level: " + level + ", index: " + index);
+                } else {
+                    assertEquals(expected.getDigest(level, index), actual.getDigest(level, index),
+                            "level: " + level + ", index: " + index);
+                }
+            }
+        }
+    }
+
+    @Test
+    void concurrentRequestsReadEveryBucketOnce() throws Exception {
+        final ArrayDataService dataService = new ArrayDataService(values());
+        final DigestTree tree = new DigestTree(dataService, "id", "value", objectMapper, BUCKET_SIZE);
+        final int root = tree.getLevels() - 1;
+
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<Long>> digests = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                digests.add(executor.submit(() -> tree.getDigest(root, 0)));
+            }
+            for (Future<Long> digest : digests) {
+                assertEquals(digests.get(0).get(), digest.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(tree.getNodeCount(0), dataService.reads.get());
+    }
+
+    @Test
+    void bucketsAreHashedOnDemand() {
+        final ArrayDataService dataService = new ArrayDataService(values());
+        final DigestTree tree = new DigestTree(dataService, "id", "value", objectMapper, BUCKET_SIZE);
+
+        tree.getDigest(0, CHANGED_ROW / BUCKET_SIZE);
+        final int reads = dataService.reads.get();
+        tree.getDigest(0, CHANGED_ROW / BUCKET_SIZE + 1);
+
+        assertTrue(reads > 0 && reads < tree.getNodeCount(0), "Reads: " + reads);
+        assertEquals(reads, dataService.reads.get());
+    }
+
+    @Test
+    void tooManyBucketsAreRejected() {
+        final ArrayDataService dataService = new ArrayDataService(new Object[DigestTree.MAX_BUCKETS + 1]);
+
+        assertThrows(IllegalArgumentException.class, () -> new DigestTree(dataService, "id", "value", objectMapper, 1));
+        assertEquals(DigestTree.MAX_BUCKETS / 2 + 1,
+                new DigestTree(dataService, "id", "value", objectMapper, 2).getNodeCount(0));
+    }
+
+    private static Object[] values() {
+        final Object[] values = new Object[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            values[i] = "value-" + i;
+        }
+        return values;
+    }
+
+    private static class ArrayDataService implements DataService<Object> {
+        private final Object[] keys;
+        private final Object[] values;
+        private final AtomicInteger reads = new AtomicInteger();
+
+        ArrayDataService(Object[] values) {
+            this.keys = new Object[values.length];
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = i;
+            }
+            this.values = values.clone();
+        }
+
+        @Override
+        public Object[][] readColumns(List<String> columnNames, Integer offset, Integer limit) {
+            reads.incrementAndGet();
+            return new Object[][]{
+                    Arrays.copyOfRange(keys, offset, offset + limit),
+                    Arrays.copyOfRange(values, offset, offset + limit)
+            };
+        }
+
+        @Override
+        public int getSize() {
+            return keys.length;
+        }
+
+        @Override
+        public List<Object> getData(Integer offset, Integer limit) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Object[] readColumn(String columnName, Integer offset, Integer limit) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<Object> readPrimitiveColumn(String columnName, DataType dataType, Integer offset, Integer limit) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<List<Object>> readPrimitiveColumns(List<String> columnNames, List<DataType> dataTypes,
+                                                       Integer offset, Integer limit) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Object[] readRows(String columnName, int[] rows) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public KeyIndex getKeyIndex(String keyColumnName) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
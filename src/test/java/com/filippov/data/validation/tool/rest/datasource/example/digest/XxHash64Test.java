@@ -0,0 +1,38 @@
+/*
+ *   Copyright 2018-2020 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.filippov.data.validation.tool.rest.datasource.example.digest;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class XxHash64Test {
+
+    @Test
+    void matchesReferenceImplementation() {
+        assertEquals(0xEF46DB3751D8E999L, hash("", 0));
+        assertEquals(0xD24EC4F1A98C6E5BL, hash("a", 0));
+        assertEquals(0x44BC2CF5AD770999L, hash("abc", 0));
+        assertEquals(0xFBCEA83C8A378BF1L, hash("Nobody inspects the spammish repetition", 0));
+    }
+
+    private static long hash(String value, long seed) {
+        return XxHash64.hash(value.getBytes(StandardCharsets.UTF_8), seed);
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ *   Copyright 2018-2020 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.filippov.data.validation.tool.rest.datasource.example.dvt;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.filippov.data.validation.tool.model.ColumnData;
+import com.filippov.data.validation.tool.model.DatasourceColumn;
+import com.filippov.data.validation.tool.model.DatasourceTable;
+import com.filippov.data.validation.tool.rest.datasource.example.config.ApplicationProperties;
+import com.filippov.data.validation.tool.rest.datasource.example.generator.CompaniesGenerator;
+import com.filippov.data.validation.tool.rest.datasource.example.generator.DepartmentsGenerator;
+import com.filippov.data.validation.tool.rest.datasource.example.generator.GenerationEngine;
+import com.filippov.data.validation.tool.rest.datasource.example.generator.UsersGenerator;
+import com.filippov.data.validation.tool.rest.datasource.example.service.CompaniesService;
+import com.filippov.data.validation.tool.rest.datasource.example.service.DataService;
+import com.filippov.data.validation.tool.rest.datasource.example.service.DepartmentsService;
+import com.filippov.data.validation.tool.rest.datasource.example.service.UsersService;
+import com.filippov.data.validation.tool.rest.datasource.example.storage.StorageMode;
+import com.filippov.data.validation.tool.rest.datasource.example.storage.TableStoreFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ColumnDataBinaryCodecTest {
+    private static final StaticDataValidationToolMetadataProvider METADATA_PROVIDER = new StaticDataValidationToolMetadataProvider();
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final ColumnDataBinaryCodec codec = new ColumnDataBinaryCodec(objectMapper);
+
+    @Test
+    void everyColumnSurvivesRoundTrip() throws IOException {
+        final ApplicationProperties properties = new ApplicationProperties();
+        properties.setNumberOfUsers(500);
+        properties.setNumberOfDepartments(500);
+        properties.setNumberOfCompanies(500);
+        properties.setSizeOfNestedLists(10);
+        properties.setPercentOfDiscrepancies(10);
+        properties.setStorageMode(StorageMode.OBJECTS);
+        properties.setGenerationParallelism(1);
+        properties.setGenerationChunkSize(100);
+        final TableStoreFactory tableStoreFactory = new TableStoreFactory(METADATA_PROVIDER, new GenerationEngine(properties, new SimpleMeterRegistry()), properties, objectMapper);
+
+        assertRoundTrip(StaticDataValidationToolMetadataProvider.USERS_TABLE,
+                new UsersService(new UsersGenerator(properties), tableStoreFactory));
+        assertRoundTrip(StaticDataValidationToolMetadataProvider.DEPARTMENTS_TABLE,
+                new DepartmentsService(new DepartmentsGenerator(properties), tableStoreFactory));
+        assertRoundTrip(StaticDataValidationToolMetadataProvider.COMPANIES_TABLE,
+                new CompaniesService(new CompaniesGenerator(properties), tableStoreFactory));
+    }
+
+    private void assertRoundTrip(DatasourceTable table, DataService<?> dataService) throws IOException {
+        final DatasourceColumn keyColumn = METADATA_PROVIDER.getDatasourceColumn(table, table.getPrimaryKey());
+        for (String columnName : table.getColumns()) {
+            final DatasourceColumn valueColumn = METADATA_PROVIDER.getDatasourceColumn(table, columnName);
+            final ColumnData expected = ColumnData.builder()
+                    .keyColumn(keyColumn)
+                    .dataColumn(valueColumn)
+                    .keys(dataService.readPrimitiveColumn(keyColumn.getName(), keyColumn.getDataType(), 0, dataService.getSize()))
+                    .values(dataService.readPrimitiveColumn(columnName, valueColumn.getDataType(), 0, dataService.getSize()))
+                    .build();
+
+            final ByteArrayOutputStream binary = new ByteArrayOutputStream();
+            codec.write(expected, binary);
+            final ColumnData actual = codec.read(new ByteArrayInputStream(binary.toByteArray()));
+
+            assertEquals(objectMapper.valueToTree(expected), objectMapper.valueToTree(actual), columnName);
+            assertTrue(binary.size() < objectMapper.writeValueAsBytes(expected).length, columnName);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ *   Copyright 2018-2020 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.filippov.data.validation.tool.rest.datasource.example.dvt;
+
+import com.filippov.data.validation.tool.rest.datasource.example.config.ApplicationProperties;
+import com.filippov.data.validation.tool.rest.datasource.example.generator.CompaniesGenerator;
+import com.filippov.data.validation.tool.rest.datasource.example.generator.DataGenerator;
+import com.filippov.data.validation.tool.rest.datasource.example.generator.DepartmentsGenerator;
+import com.filippov.data.validation.tool.rest.datasource.example.generator.UsersGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class TableColumnsTest {
+    private static final StaticDataValidationToolMetadataProvider METADATA_PROVIDER = new StaticDataValidationToolMetadataProvider();
+
+    @Test
+    void extractorsReadTheFieldsOfTheirColumns() throws ReflectiveOperationException {
+        final ApplicationProperties properties = new ApplicationProperties();
+        properties.setNumberOfUsers(100);
+        properties.setNumberOfDepartments(100);
+        properties.setNumberOfCompanies(100);
+        properties.setSizeOfNestedLists(10);
+        properties.setPercentOfDiscrepancies(0);
+
+        final Map<String, DataGenerator<?>> generators = Map.of(
+                StaticDataValidationToolMetadataProvider.USERS_TABLE.getName(), new UsersGenerator(properties),
+                StaticDataValidationToolMetadataProvider.DEPARTMENTS_TABLE.getName(), new DepartmentsGenerator(properties),
+                StaticDataValidationToolMetadataProvider.COMPANIES_TABLE.getName(), new CompaniesGenerator(properties));
+
+        for (Map.Entry<String, DataGenerator<?>> entry : generators.entrySet()) {
+            final Object row = entry.getValue().generate(11);
+            final TableColumns tableColumns = METADATA_PROVIDER.getTableColumns(entry.getKey());
+            assertEquals(tableColumns.getTable().getColumns().size(), tableColumns.size());
+            for (int i = 0; i < tableColumns.size(); i++) {
+                final String columnName = tableColumns.getColumn(i).getName();
+                assertEquals(i, tableColumns.indexOf(columnName));
+
+                final Field field = tableColumns.getModelClass().getDeclaredField(columnName);
+                field.setAccessible(true);
+                assertSame(field.get(row), tableColumns.getExtractor(i).apply(row), columnName);
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ *   Copyright 2018-2020 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.filippov.data.validation.tool.rest.datasource.example.generator;
+
+import com.filippov.data.validation.tool.rest.datasource.example.config.ApplicationProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GenerationEngineTest {
+
+    @Test
+    void chunkSizeMustBePositive() {
+        for (Integer chunkSize : new Integer[]{null, 0, -1}) {
+            final ApplicationProperties properties = new ApplicationProperties();
+            properties.setGenerationParallelism(1);
+            properties.setGenerationChunkSize(chunkSize);
+
+            final IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                    () -> new GenerationEngine(properties, new SimpleMeterRegistry()));
+            assertTrue(exception.getMessage().contains("generation-chunk-size"));
+        }
+    }
+}
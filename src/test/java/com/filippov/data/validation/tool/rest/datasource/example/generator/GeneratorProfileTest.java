@@ -0,0 +1,88 @@
+/*
+ *   Copyright 2018-2020 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.filippov.data.validation.tool.rest.datasource.example.generator;
+
+import com.filippov.data.validation.tool.rest.datasource.example.config.ApplicationProperties;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GeneratorProfileTest {
+
+    @Test
+    void defaultProfileKeepsBuiltInData() {
+        final GeneratorProfile profile = new GeneratorProfile(new ApplicationProperties());
+        final IndexDistribution countries = profile.values(6);
+
+        for (int id = 0; id < 100; id++) {
+            assertEquals(id % 6, countries.index(1, id));
+            assertFalse(profile.isNull("country", id));
+        }
+        assertNull(profile.nestedListSizes(100));
+        assertEquals("username-1", profile.string("username-1"));
+    }
+
+    @Test
+    void skewedValuesAreDeterministicAndFavourFirstOnes() {
+        final ApplicationProperties properties = new ApplicationProperties();
+        properties.setValueCardinality(1000);
+        properties.setValueSkew(1.1);
+        final IndexDistribution values = new GeneratorProfile(properties).values(6);
+        final IndexDistribution sameValues = new GeneratorProfile(properties).values(6);
+
+        final int[] counts = new int[values.getSize()];
+        for (int id = 0; id < 100_000; id++) {
+            final int index = values.index(1, id);
+            assertEquals(sameValues.index(1, id), index);
+            counts[index]++;
+        }
+        assertEquals(1000, counts.length);
+        assertTrue(counts[0] > counts[1] && counts[1] > counts[10] && counts[10] > counts[999]);
+    }
+
+    @Test
+    void nestedListSizesNullsAndStringsFollowTheProfile() {
+        final ApplicationProperties properties = new ApplicationProperties();
+        properties.setStringLength(32);
+        properties.setPercentOfNulls(10);
+        properties.setNestedListSkew(1.0);
+        final GeneratorProfile profile = new GeneratorProfile(properties);
+        final IndexDistribution sizes = profile.nestedListSizes(20);
+
+        int nulls = 0;
+        for (int id = 0; id < 100_000; id++) {
+            final int size = sizes.index(3, id) + 1;
+            assertTrue(size >= 1 && size <= 20);
+            nulls += profile.isNull("name", id) ? 1 : 0;
+        }
+        assertTrue(nulls > 9_000 && nulls < 11_000);
+        assertEquals(32, profile.string("username-1").length());
+        assertTrue(profile.string("username-1").startsWith("username-1-"));
+    }
+
+    @Test
+    void invalidProfileIsRejected() {
+        final ApplicationProperties properties = new ApplicationProperties();
+        properties.setPercentOfNulls(101);
+
+        assertThrows(IllegalArgumentException.class, () -> new GeneratorProfile(properties));
+    }
+}
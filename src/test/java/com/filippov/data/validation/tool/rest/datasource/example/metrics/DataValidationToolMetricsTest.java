@@ -0,0 +1,73 @@
+/*
+ *   Copyright 2018-2020 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package com.filippov.data.validation.tool.rest.datasource.example.metrics;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DataValidationToolMetricsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final DataValidationToolMetrics metrics = new DataValidationToolMetrics(meterRegistry);
+
+    @Test
+    void dataPagesAreRecordedPerTableAndColumn() {
+        metrics.recordData("users", "username", 10, System.nanoTime());
+        final Timer timer = meterRegistry.get("dvt.data.column").tags("table", "users", "column", "username").timer();
+        metrics.recordData("users", "username", 5, System.nanoTime());
+        metrics.recordData("users", "email", 7, System.nanoTime());
+
+        assertSame(timer, meterRegistry.get("dvt.data.column").tags("table", "users", "column", "username").timer());
+        assertEquals(2, timer.count());
+        assertEquals(15, meterRegistry.get("dvt.data.rows").tags("table", "users", "column", "username").summary().totalAmount());
+        assertEquals(1, meterRegistry.get("dvt.data.column").tags("table", "users", "column", "email").timer().count());
+        assertEquals(2, meterRegistry.get("dvt.data.column").timers().size());
+        assertEquals(3, meterRegistry.get("dvt.data").tags("table", "users").timer().count());
+        assertEquals(1, meterRegistry.get("dvt.data").timers().size());
+    }
+
+    @Test
+    void onlyTableTimersPublishHistograms() {
+        final PrometheusMeterRegistry prometheusRegistry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        final DataValidationToolMetrics prometheusMetrics = new DataValidationToolMetrics(prometheusRegistry);
+        prometheusMetrics.recordData("users", "username", 10, System.nanoTime());
+        prometheusMetrics.recordSize("users", "username", System.nanoTime());
+
+        final String scrape = prometheusRegistry.scrape();
+        assertTrue(scrape.contains("dvt_data_seconds_bucket"));
+        assertTrue(scrape.contains("dvt_size_seconds_bucket"));
+        assertTrue(scrape.contains("dvt_data_column_seconds_count"));
+        assertFalse(scrape.contains("dvt_data_column_seconds_bucket"));
+        assertFalse(scrape.contains("dvt_size_column_seconds_bucket"));
+    }
+
+    @Test
+    void sizeRequestsAreRecordedPerTableAndColumn() {
+        metrics.recordSize("users", "username", System.nanoTime());
+        metrics.recordSize("users", "email", System.nanoTime());
+
+        assertEquals(2, meterRegistry.get("dvt.size").tags("table", "users").timer().count());
+        assertEquals(1, meterRegistry.get("dvt.size.column").tags("table", "users", "column", "username").timer().count());
+    }
+}
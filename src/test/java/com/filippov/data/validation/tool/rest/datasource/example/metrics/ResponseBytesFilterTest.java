@@ -0,0 +1,78 @@
+/*
+ *   Copyright 2018-2020 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package com.filippov.data.validation.tool.rest.datasource.example.metrics;
+
+import com.filippov.data.validation.tool.rest.datasource.example.admission.AdmissionControlFilter;
+import com.filippov.data.validation.tool.rest.datasource.example.cache.CompressedPageCacheFilter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.annotation.OrderUtils;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResponseBytesFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ResponseBytesFilter filter = new ResponseBytesFilter(meterRegistry);
+
+    @Test
+    void bytesWrittenToStreamAndWriterAreRecorded() throws Exception {
+        filter.doFilter(request("/data"), new MockHttpServletResponse(),
+                (request, response) -> response.getOutputStream().write(new byte[10]));
+        filter.doFilter(request("/data"), new MockHttpServletResponse(), (request, response) -> {
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            response.getWriter().print("héllo");
+        });
+
+        final DistributionSummary summary = meterRegistry.get("http.server.response.bytes").tag("uri", "/data").summary();
+        assertEquals(2, summary.count());
+        assertEquals(16, summary.totalAmount());
+    }
+
+    @Test
+    void writerOutputReachesResponse() throws Exception {
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request("/tables/{tableName}"), response, (request, wrapped) -> {
+            wrapped.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            wrapped.getWriter().print("[1,2,3]");
+        });
+
+        assertEquals("[1,2,3]", response.getContentAsString());
+        assertEquals(7, meterRegistry.get("http.server.response.bytes").tag("uri", "/tables/{tableName}").summary().totalAmount());
+    }
+
+    @Test
+    void bytesAreCountedBeforeCompression() {
+        final int admission = OrderUtils.getOrder(AdmissionControlFilter.class, 0);
+        final int compression = OrderUtils.getOrder(CompressedPageCacheFilter.class, 0);
+        final int bytes = OrderUtils.getOrder(ResponseBytesFilter.class, 0);
+        assertTrue(admission < compression && compression < bytes);
+    }
+
+    private static MockHttpServletRequest request(String pattern) {
+        final MockHttpServletRequest request = new MockHttpServletRequest("GET", pattern);
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, pattern);
+        return request;
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ *   Copyright 2018-2020 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.filippov.data.validation.tool.rest.datasource.example.storage;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class KeyIndexTest {
+
+    @Test
+    void orderedKeysArePagedByPosition() {
+        final KeyIndex index = KeyIndex.build(new IntColumn(new int[]{1, 2, 3, 4, 5}, new BitSet()), 5);
+
+        assertTrue(index.isOrdered());
+        assertEquals(0, index.positionAfter(null));
+        assertEquals(2, index.positionAfter(2));
+        assertEquals(5, index.pageEnd(2, 10));
+        assertArrayEquals(new int[]{2, 3}, index.rows(2, index.pageEnd(2, 2)));
+    }
+
+    @Test
+    void unorderedKeysArePagedInKeyOrderWithoutSplittingEqualKeys() {
+        final KeyIndex index = KeyIndex.build(new IntColumn(new int[]{1, 2, 3, 4, 5, 2, 3}, new BitSet()), 7);
+
+        assertFalse(index.isOrdered());
+        final int from = index.positionAfter(1);
+        final int to = index.pageEnd(from, 3);
+        assertArrayEquals(new int[]{1, 5, 2, 6}, index.rows(from, to));
+        assertArrayEquals(new int[]{3, 4}, index.rows(index.positionAfter(3), index.pageEnd(index.positionAfter(3), 10)));
+    }
+
+    @Test
+    void orderedColumnIsSearchedWithoutReadingEveryKey() {
+        final AtomicInteger readKeys = new AtomicInteger();
+        // every key is in two rows: 1, 1, 2, 2, ...
+        final KeyIndex index = KeyIndex.ordered(row -> {
+            readKeys.incrementAndGet();
+            return row / 2 + 1;
+        }, 1_000_000);
+
+        assertTrue(index.isOrdered());
+        assertEquals(0, index.positionAfter(null));
+        final int from = index.positionAfter(10);
+        assertEquals(20, from);
+        assertArrayEquals(new int[]{20, 21, 22, 23}, index.rows(from, index.pageEnd(from, 3)));
+        assertEquals(1_000_000, index.pageEnd(999_990, 100));
+        assertTrue(readKeys.get() < 100);
+    }
+
+    @Test
+    void orderedColumnMustHaveIntegerKeys() {
+        final KeyIndex index = KeyIndex.ordered(row -> (row == 5) ? null : row, 10);
+
+        assertThrows(IllegalStateException.class, () -> index.positionAfter(7));
+    }
+}
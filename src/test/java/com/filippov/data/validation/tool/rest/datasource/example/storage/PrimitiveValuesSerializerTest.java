@@ -0,0 +1,85 @@
+/*
+ *   Copyright 2018-2020 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.filippov.data.validation.tool.rest.datasource.example.storage;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.filippov.data.validation.tool.model.ColumnData;
+import com.filippov.data.validation.tool.model.DataType;
+import com.filippov.data.validation.tool.model.DatasourceColumn;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+class PrimitiveValuesSerializerTest {
+    private static final ObjectMapper OBJECT_MAPPER = Jackson2ObjectMapperBuilder.json().build();
+
+    private static final int[] INTS = {0, 1, -1, 42, Integer.MIN_VALUE, Integer.MAX_VALUE};
+    private static final long[] LONGS = {0, 1, -1, (long) Integer.MAX_VALUE + 1, Long.MIN_VALUE, Long.MAX_VALUE};
+    private static final double[] DOUBLES = {0.0, -0.0, 0.1, -2.5, 1.0E-7, 123456789.0, 1.0E300, Double.MIN_VALUE, Double.MAX_VALUE};
+
+    @Test
+    void primitiveValuesAreWrittenAsTheSameJsonAsBoxedLists() throws JsonProcessingException {
+        assertSameJson(boxed(INTS), new IntValues(INTS));
+        assertSameJson(boxed(LONGS), new LongValues(LONGS));
+        assertSameJson(boxed(DOUBLES), new DoubleValues(DOUBLES));
+
+        assertSameJson(List.of(), new IntValues(new int[0]));
+        assertSameJson(List.of(), new LongValues(new long[0]));
+        assertSameJson(List.of(), new DoubleValues(new double[0]));
+    }
+
+    @Test
+    void columnDataWithPrimitiveValuesIsTheSameJsonAsWithBoxedLists() throws JsonProcessingException {
+        final int[] keys = IntStream.range(0, DOUBLES.length).toArray();
+        assertSameJson(columnData(DataType.DOUBLE, boxed(keys), boxed(DOUBLES)),
+                columnData(DataType.DOUBLE, new IntValues(keys), new DoubleValues(DOUBLES)));
+        assertSameJson(columnData(DataType.LONG, boxed(INTS), boxed(LONGS)),
+                columnData(DataType.LONG, new IntValues(INTS), new LongValues(LONGS)));
+    }
+
+    private static ColumnData columnData(DataType dataType, List<Object> keys, List<Object> values) {
+        return ColumnData.builder()
+                .keyColumn(DatasourceColumn.builder().tableName("table").name("id").dataType(DataType.INTEGER).build())
+                .dataColumn(DatasourceColumn.builder().tableName("table").name("value").dataType(dataType).build())
+                .keys(keys)
+                .values(values)
+                .build();
+    }
+
+    private static List<Object> boxed(int[] values) {
+        return Arrays.asList(IntStream.of(values).boxed().toArray());
+    }
+
+    private static List<Object> boxed(long[] values) {
+        return Arrays.asList(LongStream.of(values).boxed().toArray());
+    }
+
+    private static List<Object> boxed(double[] values) {
+        return Arrays.asList(Arrays.stream(values).boxed().toArray());
+    }
+
+    private static void assertSameJson(Object expected, Object actual) throws JsonProcessingException {
+        assertArrayEquals(OBJECT_MAPPER.writeValueAsBytes(expected), OBJECT_MAPPER.writeValueAsBytes(actual));
+    }
+}
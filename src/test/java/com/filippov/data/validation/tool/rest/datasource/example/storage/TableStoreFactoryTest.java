@@ -0,0 +1,182 @@
+/*
+ *   Copyright 2018-2020 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.filippov.data.validation.tool.rest.datasource.example.storage;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.filippov.data.validation.tool.rest.datasource.example.config.ApplicationProperties;
+import com.filippov.data.validation.tool.rest.datasource.example.dvt.StaticDataValidationToolMetadataProvider;
+import com.filippov.data.validation.tool.rest.datasource.example.generator.CompaniesGenerator;
+import com.filippov.data.validation.tool.rest.datasource.example.generator.DepartmentsGenerator;
+import com.filippov.data.validation.tool.rest.datasource.example.generator.GenerationEngine;
+import com.filippov.data.validation.tool.rest.datasource.example.generator.UsersGenerator;
+import com.filippov.data.validation.tool.rest.datasource.example.service.CompaniesService;
+import com.filippov.data.validation.tool.rest.datasource.example.service.DataService;
+import com.filippov.data.validation.tool.rest.datasource.example.service.DepartmentsService;
+import com.filippov.data.validation.tool.rest.datasource.example.service.UsersService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TableStoreFactoryTest {
+    private static final StaticDataValidationToolMetadataProvider METADATA_PROVIDER = new StaticDataValidationToolMetadataProvider();
+    private static final ObjectMapper OBJECT_MAPPER = Jackson2ObjectMapperBuilder.json().build();
+
+    @ParameterizedTest
+    @ValueSource(strings = {"COLUMNAR", "VIRTUAL", "OFF_HEAP"})
+    void storageModeServesTheSameData(StorageMode storageMode) {
+        assertSameData(StaticDataValidationToolMetadataProvider.USERS_TABLE.getColumns(), properties ->
+                new UsersService(new UsersGenerator(properties), tableStoreFactory(properties)), storageMode);
+        assertSameData(StaticDataValidationToolMetadataProvider.DEPARTMENTS_TABLE.getColumns(), properties ->
+                new DepartmentsService(new DepartmentsGenerator(properties), tableStoreFactory(properties)), storageMode);
+        assertSameData(StaticDataValidationToolMetadataProvider.COMPANIES_TABLE.getColumns(), properties ->
+                new CompaniesService(new CompaniesGenerator(properties), tableStoreFactory(properties)), storageMode);
+    }
+
+    @Test
+    void snapshotServesTheSameData(@TempDir Path snapshotPath) throws IOException {
+        final ApplicationProperties properties = properties(StorageMode.COLUMNAR);
+        properties.setSnapshotPath(snapshotPath.toString());
+
+        // the first round generates the tables and writes snapshots, the second one maps the snapshots
+        for (int round = 0; round < 2; round++) {
+            assertSameData(StaticDataValidationToolMetadataProvider.USERS_TABLE.getColumns(), p ->
+                    new UsersService(new UsersGenerator(p), tableStoreFactory(p)), properties);
+            assertSameData(StaticDataValidationToolMetadataProvider.DEPARTMENTS_TABLE.getColumns(), p ->
+                    new DepartmentsService(new DepartmentsGenerator(p), tableStoreFactory(p)), properties);
+            assertSameData(StaticDataValidationToolMetadataProvider.COMPANIES_TABLE.getColumns(), p ->
+                    new CompaniesService(new CompaniesGenerator(p), tableStoreFactory(p)), properties);
+            try (Stream<Path> files = Files.list(snapshotPath)) {
+                assertEquals(3, files.count());
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"OBJECTS", "COLUMNAR"})
+    void preSerializedJsonIsTheSameAsJackson(StorageMode storageMode) throws IOException {
+        final ApplicationProperties properties = properties(storageMode);
+        properties.setPreSerializedJsonBlockSize(64);
+        // smaller than the tables, so blocks are evicted and encoded again
+        properties.setPreSerializedJsonCacheSize(DataSize.ofKilobytes(16));
+        final List<DataService<?>> services = List.of(
+                new UsersService(new UsersGenerator(properties), tableStoreFactory(properties)),
+                new DepartmentsService(new DepartmentsGenerator(properties), tableStoreFactory(properties)),
+                new CompaniesService(new CompaniesGenerator(properties), tableStoreFactory(properties)));
+
+        for (DataService<?> service : services) {
+            for (int[] window : new int[][]{{0, 1000}, {990, 50}, {64, 64}, {100, 1}, {10, 0}}) {
+                final JsonRowWindow<?> rows = (JsonRowWindow<?>) service.getData(window[0], window[1]);
+                final List<?> expectedRows = new ArrayList<>(rows);
+
+                final ByteArrayOutputStream jsonArray = new ByteArrayOutputStream();
+                rows.writeJsonArray(jsonArray);
+                assertEquals(OBJECT_MAPPER.writeValueAsString(expectedRows), jsonArray.toString(StandardCharsets.UTF_8));
+                assertEquals(jsonArray.size(), rows.getJsonArrayLength());
+
+                final ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+                rows.writeNdjson(ndjson);
+                final StringBuilder expectedNdjson = new StringBuilder();
+                for (Object row : expectedRows) {
+                    expectedNdjson.append(OBJECT_MAPPER.writeValueAsString(row)).append('\n');
+                }
+                assertEquals(expectedNdjson.toString(), ndjson.toString(StandardCharsets.UTF_8));
+            }
+        }
+    }
+
+    @Test
+    void virtualKeyIndexIsSearchedOnDemand() {
+        final ApplicationProperties objectsProperties = properties(StorageMode.OBJECTS);
+        final ApplicationProperties virtualProperties = properties(StorageMode.VIRTUAL);
+        final KeyIndex expected = new UsersService(new UsersGenerator(objectsProperties), tableStoreFactory(objectsProperties))
+                .getKeyIndex("intId");
+        final KeyIndex actual = new UsersService(new UsersGenerator(virtualProperties), tableStoreFactory(virtualProperties))
+                .getKeyIndex("intId");
+
+        assertTrue(actual.isOrdered());
+        assertEquals(expected.size(), actual.size());
+        for (Integer lastKey : new Integer[]{null, 0, 1, 500, 1099, 5000}) {
+            final int from = expected.positionAfter(lastKey);
+            assertEquals(from, actual.positionAfter(lastKey));
+            assertEquals(expected.pageEnd(from, 100), actual.pageEnd(from, 100));
+        }
+
+        // departments with discrepancies have additional rows with repeated keys
+        final DepartmentsService departmentsService = new DepartmentsService(new DepartmentsGenerator(virtualProperties),
+                tableStoreFactory(virtualProperties));
+        assertThrows(IllegalStateException.class, () -> departmentsService.getKeyIndex("intId"));
+    }
+
+    private void assertSameData(List<String> columns, Function<ApplicationProperties, DataService<?>> serviceFactory,
+                                StorageMode storageMode) {
+        assertSameData(columns, serviceFactory, properties(storageMode));
+    }
+
+    private void assertSameData(List<String> columns, Function<ApplicationProperties, DataService<?>> serviceFactory,
+                                ApplicationProperties properties) {
+        final DataService<?> expected = serviceFactory.apply(properties(StorageMode.OBJECTS));
+        final DataService<?> actual = serviceFactory.apply(properties);
+
+        assertEquals(expected.getSize(), actual.getSize());
+        assertEquals(expected.getData(0, expected.getSize()), actual.getData(0, actual.getSize()));
+        assertEquals(expected.getData(990, 50), actual.getData(990, 50));
+        for (String column : columns) {
+            assertArrayEquals(expected.readColumn(column, 0, expected.getSize()), actual.readColumn(column, 0, actual.getSize()));
+            assertArrayEquals(expected.readColumn(column, 990, 50), actual.readColumn(column, 990, 50));
+        }
+        final Object[][] window = actual.readColumns(columns, 990, 50);
+        for (int i = 0; i < columns.size(); i++) {
+            assertArrayEquals(expected.readColumn(columns.get(i), 990, 50), window[i]);
+        }
+    }
+
+    private static TableStoreFactory tableStoreFactory(ApplicationProperties properties) {
+        return new TableStoreFactory(METADATA_PROVIDER, new GenerationEngine(properties, new SimpleMeterRegistry()), properties, OBJECT_MAPPER);
+    }
+
+    private static ApplicationProperties properties(StorageMode storageMode) {
+        final ApplicationProperties properties = new ApplicationProperties();
+        properties.setNumberOfUsers(1000);
+        properties.setNumberOfDepartments(1000);
+        properties.setNumberOfCompanies(1000);
+        properties.setSizeOfNestedLists(10);
+        properties.setPercentOfDiscrepancies(10);
+        properties.setStorageMode(storageMode);
+        properties.setGenerationParallelism(4);
+        properties.setGenerationChunkSize(100);
+        return properties;
+    }
+}
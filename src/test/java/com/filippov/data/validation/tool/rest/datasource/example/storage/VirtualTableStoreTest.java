@@ -0,0 +1,78 @@
+/*
+ *   Copyright 2018-2020 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.filippov.data.validation.tool.rest.datasource.example.storage;
+
+import com.filippov.data.validation.tool.rest.datasource.example.generator.DataGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class VirtualTableStoreTest {
+    private static final int SIZE = 100;
+    private static final Map<String, Function<Object, Object>> EXTRACTORS = Map.of(
+            "id", row -> ((int[]) row)[0],
+            "double", row -> ((int[]) row)[1],
+            "triple", row -> ((int[]) row)[2]);
+
+    private final AtomicInteger generatedRows = new AtomicInteger();
+    private final VirtualTableStore<int[]> store = new VirtualTableStore<>(new DataGenerator<int[]>() {
+        @Override
+        public List<int[]> generate() {
+            return IntStream.range(0, SIZE).mapToObj(this::generate).collect(toList());
+        }
+
+        @Override
+        public int[] generate(int index) {
+            generatedRows.incrementAndGet();
+            return new int[]{index, index * 2, index * 3};
+        }
+
+        @Override
+        public int getSize() {
+            return SIZE;
+        }
+    }, EXTRACTORS);
+
+    @Test
+    void columnsOfTheSameRowShareTheGeneratedRow() {
+        assertEquals(7, store.getColumn("id").get(7));
+        assertEquals(14, store.getColumn("double").get(7));
+        assertEquals(21, store.getColumn("triple").get(7));
+
+        assertEquals(1, generatedRows.get());
+    }
+
+    @Test
+    void windowOfSeveralColumnsIsGeneratedOnce() {
+        final Object[][] targets = new Object[3][10];
+
+        store.readColumns(List.of("triple", "id", "double"), 20, targets);
+
+        assertEquals(10, generatedRows.get());
+        assertArrayEquals(IntStream.range(20, 30).map(i -> i * 3).boxed().toArray(), targets[0]);
+        assertArrayEquals(IntStream.range(20, 30).boxed().toArray(), targets[1]);
+        assertArrayEquals(IntStream.range(20, 30).map(i -> i * 2).boxed().toArray(), targets[2]);
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ *   Copyright 2018-2020 the original author or authors.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package com.filippov.data.validation.tool.rest.datasource.example.table;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.filippov.data.validation.tool.model.DataType;
+import com.filippov.data.validation.tool.rest.datasource.example.config.ApplicationProperties;
+import com.filippov.data.validation.tool.rest.datasource.example.dvt.StaticDataValidationToolMetadataProvider;
+import com.filippov.data.validation.tool.rest.datasource.example.generator.GenerationEngine;
+import com.filippov.data.validation.tool.rest.datasource.example.service.TableService;
+import com.filippov.data.validation.tool.rest.datasource.example.storage.StorageMode;
+import com.filippov.data.validation.tool.rest.datasource.example.storage.TableStoreFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DeclaredTableTest {
+    private static final int ROWS = 10_000;
+
+    @Test
+    void columnsAreExpandedAndValuesAreDeterministic() {
+        final DeclaredTable table = new DeclaredTable(definition(0));
+        final DeclaredTable sameTable = new DeclaredTable(definition(0));
+
+        assertEquals("id", table.getTable().getPrimaryKey());
+        assertEquals(List.of("id", "status", "amount_1", "amount_2", "amount_3"), table.getTable().getColumns());
+        assertEquals(DataType.DOUBLE, table.getColumn("amount_2").getDataType());
+        for (int row = 0; row < ROWS; row++) {
+            assertEquals(row + 1, table.getValue(0, row));
+            for (int column = 1; column < table.getColumns().size(); column++) {
+                assertEquals(table.getValue(column, row), sameTable.getValue(column, row));
+            }
+        }
+    }
+
+    @Test
+    void valuesDontDependOnPositionOfColumn() {
+        final DeclaredTable table = new DeclaredTable(definition(0));
+        final TableDefinition reordered = definition(0);
+        final ColumnDefinition note = new ColumnDefinition();
+        note.setName("note");
+        final List<ColumnDefinition> columns = reordered.getColumns();
+        reordered.setColumns(List.of(columns.get(0), note, columns.get(2), columns.get(1)));
+        final DeclaredTable reorderedTable = new DeclaredTable(reordered);
+
+        for (String column : table.getTable().getColumns()) {
+            final int index = table.getTable().getColumns().indexOf(column);
+            final int reorderedIndex = reorderedTable.getTable().getColumns().indexOf(column);
+            for (int row = 0; row < ROWS; row++) {
+                assertEquals(table.getValue(index, row), reorderedTable.getValue(reorderedIndex, row));
+            }
+        }
+    }
+
+    @Test
+    void discrepanciesChangeOnlyValueColumns() {
+        final DeclaredTable expected = new DeclaredTable(definition(0));
+        final DeclaredTable actual = new DeclaredTable(definition(10));
+
+        int changedRows = 0;
+        for (int row = 0; row < ROWS; row++) {
+            assertEquals(expected.getValue(0, row), actual.getValue(0, row));
+            if (!expected.getValue(1, row).equals(actual.getValue(1, row))) {
+                assertNull(actual.getValue(2, row));
+                changedRows++;
+            } else {
+                assertEquals(expected.getValue(2, row), actual.getValue(2, row));
+            }
+        }
+        assertTrue(changedRows > ROWS * 8 / 100 && changedRows < ROWS * 12 / 100, "Changed rows: " + changedRows);
+    }
+
+    @Test
+    void primaryKeyMustBeAnIntegerSequence() {
+        final TableDefinition definition = definition(0);
+        definition.setPrimaryKey("status");
+
+        assertThrows(IllegalArgumentException.class, () -> new DeclaredTable(definition));
+    }
+
+    @Test
+    void columnMustHaveAName() {
+        for (String name : new String[]{null, "", " "}) {
+            final TableDefinition definition = definition(0);
+            final ColumnDefinition column = new ColumnDefinition();
+            column.setName(name);
+            definition.setColumns(List.of(definition.getColumns().get(0), column));
+
+            final IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> new DeclaredTable(definition));
+            assertTrue(exception.getMessage().startsWith("Every column of table: orders must have a name"));
+        }
+    }
+
+    @Test
+    void virtualTableServesTheSameData() {
+        final DeclaredTable table = new DeclaredTable(definition(10));
+        final TableService expected = new TableService(table, tableStoreFactory(StorageMode.COLUMNAR));
+        final TableService actual = new TableService(table, tableStoreFactory(StorageMode.VIRTUAL));
+
+        assertEquals(ROWS, actual.getSize());
+        assertEquals(expected.getData(0, ROWS), actual.getData(0, ROWS));
+        for (String column : table.getTable().getColumns()) {
+            assertArrayEquals(expected.readColumn(column, 990, 50), actual.readColumn(column, 990, 50));
+        }
+        final Map<String, Object> row = actual.getData(41, 1).get(0);
+        assertEquals(42, row.get("id"));
+        assertEquals(table.getTable().getColumns(), List.copyOf(row.keySet()));
+    }
+
+    private static TableDefinition definition(int percentOfDiscrepancies) {
+        final ColumnDefinition id = new ColumnDefinition();
+        id.setName("id");
+        id.setType(DataType.INTEGER);
+        id.setDistribution(ValueDistribution.SEQUENCE);
+
+        final ColumnDefinition status = new ColumnDefinition();
+        status.setName("status");
+        status.setDistribution(ValueDistribution.VALUES);
+        status.setValues(List.of("new", "active", "closed"));
+
+        final ColumnDefinition amount = new ColumnDefinition();
+        amount.setName("amount");
+        amount.setType(DataType.DOUBLE);
+        amount.setCount(3);
+        amount.setPercentOfNulls(5);
+        amount.setDiscrepancy(DiscrepancyRule.NULL);
+
+        final TableDefinition definition = new TableDefinition();
+        definition.setName("orders");
+        definition.setNumberOfRows(ROWS);
+        definition.setPercentOfDiscrepancies(percentOfDiscrepancies);
+        definition.setColumns(List.of(id, status, amount));
+        return definition;
+    }
+
+    private static TableStoreFactory tableStoreFactory(StorageMode storageMode) {
+        final ApplicationProperties properties = new ApplicationProperties();
+        properties.setStorageMode(storageMode);
+        properties.setGenerationParallelism(4);
+        properties.setGenerationChunkSize(1000);
+        return new TableStoreFactory(new StaticDataValidationToolMetadataProvider(),
+                new GenerationEngine(properties, new SimpleMeterRegistry()), properties, new ObjectMapper());
+    }
+}